@@ -0,0 +1,111 @@
+package com.example.scheduler;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Deterministic tasks, calendar events and ICS text for the benchmarks.
+ * Everything is built in memory, so no benchmark needs Spring or the database.
+ */
+final class BenchmarkData {
+
+    static final LocalDate START = LocalDate.of(2026, 1, 5);
+
+    private static final DateTimeFormatter ICS_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private BenchmarkData() {}
+
+    /**
+     * Tasks with mixed importance, length and complexity; one in five has no due date.
+     * Each gets an id, as if it had been saved, so the priority index accepts it.
+     */
+    static List<Task> tasks(int count, int horizonDays, long seed) {
+        Random random = new Random(seed);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime due = random.nextInt(5) == 0
+                    ? null
+                    : LocalDateTime.of(START.plusDays(random.nextInt(horizonDays + 7)), LocalTime.of(9 + random.nextInt(8), 0));
+            tasks.add(withId(new Task("task " + i, due, 1 + random.nextInt(5), 15 * (1 + random.nextInt(12)),
+                    1 + random.nextInt(5), Set.of()), new UUID(seed, i)));
+        }
+        return tasks;
+    }
+
+    // ids are normally assigned by the database
+    private static Task withId(Task task, UUID id) {
+        try {
+            Field field = Task.class.getDeclaredField("id");
+            field.setAccessible(true);
+            field.set(task, id);
+            return task;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Tasks in the order TaskManager hands them to the scheduler, highest priority first.
+     */
+    static List<Task> prioritized(List<Task> tasks) {
+        double[] priorities = PriorityScorer.score(TaskColumns.of(tasks, START), PriorityWeights.DEFAULT);
+        Integer[] order = new Integer[tasks.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(priorities[b], priorities[a]));
+
+        List<Task> sorted = new ArrayList<>(tasks.size());
+        for (int i : order) {
+            sorted.add(tasks.get(i));
+        }
+        return sorted;
+    }
+
+    /**
+     * Fixed events of 15 minutes to two hours, spread evenly over the horizon within the working day.
+     */
+    static List<CalendarEvent> events(int count, int horizonDays, long seed) {
+        Random random = new Random(seed);
+        List<CalendarEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate date = START.plusDays(i % horizonDays);
+            LocalTime start = LocalTime.of(8, 0).plusMinutes(15L * random.nextInt(36));
+            LocalTime end = start.plusMinutes(15L * (1 + random.nextInt(8)));
+            CalendarEvent event = new CalendarEvent(date, start, end, "event " + i);
+            event.setAsFixedEvent();
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * A VCALENDAR holding the given events as timed VEVENTs.
+     */
+    static String ics(List<CalendarEvent> events) {
+        StringBuilder ics = new StringBuilder(256 + events.size() * 160);
+        ics.append("BEGIN:VCALENDAR\r\n")
+                .append("VERSION:2.0\r\n")
+                .append("PRODID:-//scheduler//benchmark//EN\r\n");
+        int uid = 0;
+        for (CalendarEvent event : events) {
+            ics.append("BEGIN:VEVENT\r\n")
+                    .append("UID:bench-").append(uid++).append("@scheduler\r\n")
+                    .append("DTSTAMP:20260101T000000Z\r\n")
+                    .append("DTSTART:").append(ICS_TIME.format(event.getDate().atTime(event.getStartTime()))).append("\r\n")
+                    .append("DTEND:").append(ICS_TIME.format(event.getDate().atTime(event.getEndTime()))).append("\r\n")
+                    .append("SUMMARY:").append(event.getTitle()).append("\r\n")
+                    .append("END:VEVENT\r\n");
+        }
+        return ics.append("END:VCALENDAR\r\n").toString();
+    }
+}
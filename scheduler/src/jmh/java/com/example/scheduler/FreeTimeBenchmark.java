@@ -0,0 +1,62 @@
+package com.example.scheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Taking calendar events out of the working day, the step applyCalendarEvents used to do
+ * on the slot grid and RunLengthDay now does with interval subtraction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FreeTimeBenchmark {
+
+    @Param({"0", "50", "500", "5000"})
+    private int events;
+
+    @Param({"7", "30", "365"})
+    private int horizonDays;
+
+    @Param({"5", "15", "60"})
+    private int blockMinutes;
+
+    private List<CalendarEvent> blockedEvents;
+    private EventIndex eventIndex;
+    private Granularity granularity;
+    private WorkingHours hours;
+
+    @Setup
+    public void setUp() {
+        blockedEvents = BenchmarkData.events(events, horizonDays, 2);
+        eventIndex = EventIndex.of(blockedEvents);
+        granularity = Granularity.of(blockMinutes);
+        hours = WorkingHours.DEFAULT;
+    }
+
+    /** Indexing the events by date, done once per schedule build. */
+    @Benchmark
+    public EventIndex indexEvents() {
+        return EventIndex.of(blockedEvents);
+    }
+
+    /** Free time of every day in the horizon from an already built index. */
+    @Benchmark
+    public void encodeDays(Blackhole blackhole) {
+        for (int i = 0; i < horizonDays; i++) {
+            LocalDate date = BenchmarkData.START.plusDays(i);
+            blackhole.consume(RunLengthDay.build(hours.on(date.getDayOfWeek()), eventIndex.busyOn(date), granularity));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.scheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing an uploaded calendar file into fixed events, with ical4j's object model and streamed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ICSParserBenchmark {
+
+    @Param({"10", "1000", "20000"})
+    private int events;
+
+    private final ICSParser parser = new ICSParser();
+    private byte[] file;
+
+    @Setup
+    public void setUp() {
+        file = BenchmarkData.ics(BenchmarkData.events(events, 365, 2)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<CalendarEvent> parseICSStream() {
+        return parser.parseICSStream(new ByteArrayInputStream(file));
+    }
+
+    @Benchmark
+    public void streamICS(Blackhole blackhole) throws IOException {
+        parser.streamICS(new ByteArrayInputStream(file), blackhole::consume);
+    }
+}
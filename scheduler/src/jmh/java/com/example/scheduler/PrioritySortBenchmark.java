@@ -0,0 +1,67 @@
+package com.example.scheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranking tasks by priority: the per-task sort TaskManager does, the batch scorer alone,
+ * and a full priority index reload, which the index does on first use and every new day.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrioritySortBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    private int tasks;
+
+    private final LocalDate today = BenchmarkData.START;
+
+    private List<Task> taskList;
+    private TaskColumns columns;
+    private double[] scores;
+
+    @Setup
+    public void setUp() {
+        taskList = BenchmarkData.tasks(tasks, 30, 1);
+        columns = TaskColumns.of(taskList, today);
+        scores = new double[tasks];
+    }
+
+    /** What TaskManager.getTasksSortedByPriority does after reading the tasks. */
+    @Benchmark
+    public List<Task> sortByPriority() {
+        Map<Task, Double> priorities = new IdentityHashMap<>(taskList.size() * 2);
+        for (Task task : taskList) {
+            priorities.put(task, task.computePriority(today));
+        }
+        List<Task> sortedTasks = new ArrayList<>(taskList);
+        sortedTasks.sort((t1, t2) -> Double.compare(priorities.get(t2), priorities.get(t1)));
+        return sortedTasks;
+    }
+
+    @Benchmark
+    public double[] batchScore() {
+        PriorityScorer.score(columns, PriorityWeights.DEFAULT, scores);
+        return scores;
+    }
+
+    @Benchmark
+    public List<Task> reloadIndex() {
+        PriorityIndex index = new PriorityIndex();
+        return index.top(64, today, 0, () -> taskList);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.scheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end schedule building: free time, breaks and task placement.
+ *
+ * ScheduleLogic is created directly; the daily, multi-day and productivity builds use no injected beans.
+ * The weekly build goes through buildMultiDaySchedule over seven days, which is what
+ * buildWeeklySchedule runs when the rescheduler has no placement to reuse; calling
+ * buildWeeklySchedule itself would measure that cache instead of the engine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScheduleBenchmark {
+
+    @Param({"10", "100", "1000", "5000", "10000"})
+    private int tasks;
+
+    @Param({"0", "50", "500"})
+    private int events;
+
+    @Param({"7", "30"})
+    private int horizonDays;
+
+    @Param({"5", "15", "60"})
+    private int blockMinutes;
+
+    private final ScheduleLogic scheduleLogic = new ScheduleLogic();
+    private final WorkingHours hours = WorkingHours.DEFAULT;
+    private final Productivity productivity = new Productivity(1.4, 1.0, 0.8, 0.5);
+
+    private List<Task> prioritizedTasks;
+    private List<CalendarEvent> blockedEvents;
+
+    @Setup
+    public void setUp() {
+        prioritizedTasks = BenchmarkData.prioritized(BenchmarkData.tasks(tasks, horizonDays, 1));
+        blockedEvents = BenchmarkData.events(events, horizonDays, 2);
+    }
+
+    @Benchmark
+    public List<CalendarEvent> dailySchedule() {
+        return scheduleLogic.buildDailySchedule(BenchmarkData.START, hours, blockMinutes,
+                prioritizedTasks, blockedEvents);
+    }
+
+    @Benchmark
+    public List<CalendarEvent> weeklySchedule() {
+        return scheduleLogic.buildMultiDaySchedule(BenchmarkData.START, 7, hours, blockMinutes,
+                prioritizedTasks, blockedEvents);
+    }
+
+    @Benchmark
+    public List<CalendarEvent> productivitySchedule() {
+        return scheduleLogic.buildProductivitySchedule(BenchmarkData.START, horizonDays, hours, blockMinutes,
+                productivity, prioritizedTasks, blockedEvents);
+    }
+
+    @Benchmark
+    public List<CalendarEvent> horizonSchedule() {
+        return scheduleLogic.buildMultiDaySchedule(BenchmarkData.START, horizonDays, hours, blockMinutes,
+                prioritizedTasks, blockedEvents);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.scheduler;
+
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs work once the current transaction commits, or right away outside a transaction,
+ * so in-memory state derived from a write never takes in one that is rolled back.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {}
+
+    static void run(Runnable action) {
+        run(Ordered.LOWEST_PRECEDENCE, action);
+    }
+
+    /**
+     * @param order among the work of the same transaction, lowest first
+     */
+    static void run(int order, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return order;
+            }
+
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,9 +1,14 @@
 package com.example.scheduler;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -15,6 +20,7 @@ import java.util.UUID;
  * The event may be a task (scheduled event) or a fixed Event (imported from ICS)
  */
 @Entity
+@Table(indexes = @Index(name = "idx_calendar_event_date_start", columnList = "date, start_time"))
 public class CalendarEvent {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -28,6 +34,12 @@ public class CalendarEvent {
     private String title;
     private int workMinutes;
 
+    // identity in the imported calendar: the ICS UID, plus the RECURRENCE-ID for a moved occurrence
+    private String icsKey;
+    // contentDigest() as of the last write, so a re-import can skip unchanged events without loading them
+    @Column(length = 64)
+    private String contentDigest;
+
     public CalendarEvent() {}
 
     public CalendarEvent(LocalDate date, LocalTime startTime, LocalTime endTime, String title) {
@@ -66,6 +78,42 @@ public class CalendarEvent {
 
     public UUID getId() { return this.id; }
 
+    public String getIcsKey() { return icsKey; }
+    public void setIcsKey(String icsKey) { this.icsKey = icsKey; }
+
+    /**
+     * SHA-256 of everything an import can change. SEQUENCE and LAST-MODIFIED are left out on purpose:
+     * a revision that changes none of these needs no write.
+     */
+    public String contentDigest() {
+        return new ContentDigest()
+                .add(date)
+                .add(startTime)
+                .add(endTime)
+                .add(title)
+                .add(workMinutes)
+                .add(isFixedEvent())
+                .hex();
+    }
+
+    /**
+     * Take over what an import can change from a newer revision of this event.
+     */
+    public void updateFrom(CalendarEvent revision) {
+        this.date = revision.date;
+        this.startTime = revision.startTime;
+        this.endTime = revision.endTime;
+        this.title = revision.title;
+        this.workMinutes = revision.workMinutes;
+        this.fixedEvent = revision.fixedEvent;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void storeContentDigest() {
+        this.contentDigest = contentDigest();
+    }
+
     // ALIAS METHODS for Thymeleaf templates
     public LocalTime getStart() { return startTime; }
     public LocalTime getEnd() { return endTime; }
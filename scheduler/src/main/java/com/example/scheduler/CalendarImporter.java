@@ -0,0 +1,240 @@
+package com.example.scheduler;
+
+import com.example.scheduler.database.CalendarEventRepository;
+import com.example.scheduler.database.ImportKey;
+import com.example.scheduler.database.RecurringEventRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Brings the stored calendar events and recurring series in line with an imported calendar in one
+ * transaction, writing only what differs. Rows are matched by their key in the calendar (UID, plus
+ * RECURRENCE-ID for a moved occurrence; the content digest for events without a UID) and compared
+ * by SHA-256 content digest. Keys and digests of the stored rows are read up front as a projection,
+ * so an unchanged event is never loaded, let alone written. New rows go in JDBC batches
+ * (hibernate.jdbc.batch_size, ordered inserts), flushing and clearing the persistence context
+ * every batch; rows the calendar no longer has go in batched DELETEs by id.
+ */
+@Service
+public class CalendarImporter {
+
+    /**
+     * Hands its events and recurring series to the sinks one at a time, e.g. straight from a streaming parser.
+     */
+    @FunctionalInterface
+    public interface EventSource {
+        void forEach(Consumer<CalendarEvent> events, Consumer<RecurringEvent> series) throws IOException;
+    }
+
+    /**
+     * What an import changed for one kind of row.
+     */
+    public record Diff(int inserted, int updated, int deleted, int unchanged) {
+
+        /** rows in the imported calendar */
+        public int imported() {
+            return inserted + updated + unchanged;
+        }
+
+        public int writes() {
+            return inserted + updated + deleted;
+        }
+    }
+
+    /**
+     * What an import changed and how long each step took. Diffing is reading the stored keys;
+     * reading is the time spent in the source between events, i.e. parsing when the source is
+     * a streaming parser; writing covers inserts, updates and deletes.
+     */
+    public record ImportReport(Diff events, Diff series, long diffNanos, long readNanos, long writeNanos) {
+
+        public long totalMillis() {
+            return (diffNanos + readNanos + writeNanos) / 1_000_000;
+        }
+
+        public long eventsPerSecond() {
+            long nanos = diffNanos + readNanos + writeNanos;
+            return nanos > 0 ? events.imported() * 1_000_000_000L / nanos : 0;
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CalendarEventRepository calendarEventRepository;
+
+    @Autowired
+    private RecurringEventRepository recurringEventRepository;
+
+    @Value("${scheduler.import.batch-size:500}")
+    private int batchSize;
+
+    @Transactional
+    public ImportReport synchronize(List<CalendarEvent> events) throws IOException {
+        return synchronize((sink, series) -> events.forEach(sink));
+    }
+
+    /**
+     * Make the stored events and series those of the source, as they arrive.
+     * Nothing is deleted if the source has no events at all, so an empty file
+     * leaves the calendar as it was.
+     */
+    @Transactional
+    public ImportReport synchronize(EventSource source) throws IOException {
+        int batch = Math.max(1, batchSize);
+        long begin = System.nanoTime();
+
+        Changes<CalendarEvent> events = new Changes<>(CalendarEvent.class,
+                calendarEventRepository.findAllImportKeys(), CalendarEvent::updateFrom);
+        Changes<RecurringEvent> series = new Changes<>(RecurringEvent.class,
+                recurringEventRepository.findAllImportKeys(), RecurringEvent::updateFrom);
+        long diffNanos = System.nanoTime() - begin;
+
+        long[] writing = {0};
+        int[] writes = {0};
+        Consumer<Boolean> written = wrote -> {
+            if (wrote && ++writes[0] % batch == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        };
+
+        long readStart = System.nanoTime();
+        source.forEach(event -> {
+            long t0 = System.nanoTime();
+            written.accept(events.apply(event, event.getIcsKey(), event.contentDigest()));
+            writing[0] += System.nanoTime() - t0;
+        }, recurring -> {
+            long t0 = System.nanoTime();
+            written.accept(series.apply(recurring, recurring.getUid(), recurring.contentDigest()));
+            writing[0] += System.nanoTime() - t0;
+        });
+        long readNanos = System.nanoTime() - readStart - writing[0];
+
+        long t0 = System.nanoTime();
+        boolean empty = events.imported() + series.imported() == 0;
+        List<UUID> removedEvents = empty ? List.of() : events.removed();
+        List<UUID> removedSeries = empty ? List.of() : series.removed();
+        for (int i = 0; i < removedEvents.size(); i += batch) {
+            calendarEventRepository.deleteAllByIdInBatch(
+                    removedEvents.subList(i, Math.min(removedEvents.size(), i + batch)));
+        }
+        for (int i = 0; i < removedSeries.size(); i += batch) {
+            recurringEventRepository.deleteAllByIdInBatch(
+                    removedSeries.subList(i, Math.min(removedSeries.size(), i + batch)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        writing[0] += System.nanoTime() - t0;
+
+        return new ImportReport(events.diff(removedEvents.size()), series.diff(removedSeries.size()),
+                diffNanos, readNanos, writing[0]);
+    }
+
+    // a row's key: its key in the calendar, else its content
+    private static String keyOf(String icsKey, String contentDigest) {
+        if (icsKey != null) return icsKey;
+        return contentDigest != null ? "#" + contentDigest : null;
+    }
+
+    /**
+     * The stored rows of one kind by key, and what the import has done to them so far. A key can
+     * hold several rows when a calendar repeats an event; each imported copy takes one of them,
+     * so a re-import of the same file matches every copy and writes nothing.
+     */
+    private final class Changes<T> {
+        private final Class<T> type;
+        private final BiConsumer<T, T> update;
+        private final Map<String, Deque<ImportKey>> stored = new HashMap<>();    // rows not matched yet
+        private final List<UUID> unmatched = new ArrayList<>();    // rows no import can match
+        private int inserted;
+        private int updated;
+        private int unchanged;
+
+        Changes(Class<T> type, List<ImportKey> keys, BiConsumer<T, T> update) {
+            this.type = type;
+            this.update = update;
+            for (ImportKey key : keys) {
+                String k = keyOf(key.key(), key.contentDigest());
+                if (k == null) {
+                    unmatched.add(key.id());
+                } else {
+                    stored.computeIfAbsent(k, x -> new ArrayDeque<>(1)).add(key);
+                }
+            }
+        }
+
+        /**
+         * Insert, update or skip one imported row.
+         * @return whether anything was written
+         */
+        boolean apply(T incoming, String icsKey, String contentDigest) {
+            String key = keyOf(icsKey, contentDigest);
+            ImportKey existing = take(key, contentDigest);
+
+            if (existing == null) {
+                entityManager.persist(incoming);
+                inserted++;
+                return true;
+            }
+            if (contentDigest.equals(existing.contentDigest())) {
+                unchanged++;
+                return false;
+            }
+            update.accept(entityManager.find(type, existing.id()), incoming);
+            updated++;
+            return true;
+        }
+
+        // a stored row under the key not matched yet, preferring one with the same content
+        private ImportKey take(String key, String contentDigest) {
+            Deque<ImportKey> rows = stored.get(key);
+            if (rows == null) return null;
+            ImportKey match = null;
+            for (ImportKey row : rows) {
+                if (contentDigest.equals(row.contentDigest())) {
+                    match = row;
+                    break;
+                }
+            }
+            if (match == null) match = rows.peekFirst();
+            rows.removeFirstOccurrence(match);
+            if (rows.isEmpty()) stored.remove(key);
+            return match;
+        }
+
+        int imported() {
+            return inserted + updated + unchanged;
+        }
+
+        List<UUID> removed() {
+            List<UUID> removed = new ArrayList<>(unmatched);
+            for (Deque<ImportKey> rows : stored.values()) {
+                for (ImportKey row : rows) {
+                    removed.add(row.id());
+                }
+            }
+            return removed;
+        }
+
+        Diff diff(int deleted) {
+            return new Diff(inserted, updated, deleted, unchanged);
+        }
+    }
+}
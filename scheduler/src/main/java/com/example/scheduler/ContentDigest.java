@@ -0,0 +1,46 @@
+package com.example.scheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 of an entity's imported fields, as hex, for telling a changed event from an unchanged one
+ * without loading it. Each field goes in as its length and its UTF-8 text (null as -1), so two
+ * different field lists never encode the same.
+ */
+final class ContentDigest {
+
+    private final MessageDigest sha256;
+
+    ContentDigest() {
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required of every Java platform", e);
+        }
+    }
+
+    ContentDigest add(Object field) {
+        if (field == null) {
+            lengthOf(-1);
+            return this;
+        }
+        byte[] text = field.toString().getBytes(StandardCharsets.UTF_8);
+        lengthOf(text.length);
+        sha256.update(text);
+        return this;
+    }
+
+    String hex() {
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    private void lengthOf(int length) {
+        sha256.update((byte) (length >>> 24));
+        sha256.update((byte) (length >>> 16));
+        sha256.update((byte) (length >>> 8));
+        sha256.update((byte) length);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.scheduler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One unfolded iCalendar content line: NAME;PARAM=value;...:VALUE (RFC 5545 section 3.1).
+ * Names and parameter names are upper-cased; parameter values lose their quotes.
+ */
+record ContentLine(String name, Map<String, String> params, String value) {
+
+    /**
+     * @return the parsed line, or null if it has no name or no value separator
+     */
+    static ContentLine parse(String line) {
+        int i = 0;
+        int n = line.length();
+        while (i < n && line.charAt(i) != ';' && line.charAt(i) != ':') i++;
+        if (i == 0 || i == n) return null;
+        String name = line.substring(0, i).toUpperCase();
+
+        Map<String, String> params = Map.of();
+        while (i < n && line.charAt(i) == ';') {
+            int eq = line.indexOf('=', i + 1);
+            if (eq < 0) return null;
+
+            // a value runs to the next unquoted ';' or ':'
+            int j = eq + 1;
+            boolean quoted = false;
+            while (j < n && (quoted || (line.charAt(j) != ';' && line.charAt(j) != ':'))) {
+                if (line.charAt(j) == '"') quoted = !quoted;
+                j++;
+            }
+            if (params.isEmpty()) params = new LinkedHashMap<>(4);
+            params.put(line.substring(i + 1, eq).toUpperCase(), line.substring(eq + 1, j).replace("\"", ""));
+            i = j;
+        }
+        if (i == n) return null;
+
+        return new ContentLine(name, params, line.substring(i + 1));
+    }
+
+    String param(String name) {
+        return params.get(name);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.scheduler;
+
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the data a schedule is computed from (tasks, calendar events, profile).
+ * Every write bumps it, so anything derived from an older version is known to be stale.
+ * Task writes and calendar imports also bump versions of their own, for caches that only
+ * depend on the tasks or only on the imported calendar.
+ */
+@Component
+public class DataVersion {
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong tasks = new AtomicLong();
+    private final AtomicLong calendar = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Version of the tasks alone; it moves with every task write and nothing else.
+     */
+    public long tasks() {
+        return tasks.get();
+    }
+
+    /**
+     * Version of the imported calendar events and recurring series; it moves with every import that wrote.
+     */
+    public long calendar() {
+        return calendar.get();
+    }
+
+    public long bump() {
+        return version.incrementAndGet();
+    }
+
+    /**
+     * Bump after an import changed the stored calendar.
+     */
+    public long bumpCalendar() {
+        calendar.incrementAndGet();
+        return bump();
+    }
+
+    /**
+     * Bump after a task write, once the current transaction commits, or right away outside a transaction.
+     * Bumping earlier would let a concurrent reader build from the old committed rows
+     * under the new version and cache that schedule until the next write. The bump runs
+     * before any other after-commit work, so that work already sees the new version.
+     */
+    public void bumpTasksAfterCommit() {
+        AfterCommit.run(Ordered.HIGHEST_PRECEDENCE, () -> {
+            tasks.incrementAndGet();
+            bump();
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.scheduler;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA entity listener that bumps the DataVersion on every insert, update and delete,
+ * so writes made straight through a repository invalidate derived schedules too.
+ * Hibernate obtains it from the Spring context, which is what fills in the field.
+ * The callbacks run before commit, so the bump itself waits for the commit.
+ */
+public class DataVersionListener {
+
+    @Autowired
+    private DataVersion dataVersion;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onWrite(Object entity) {
+        dataVersion.bumpTasksAfterCommit();
+    }
+}
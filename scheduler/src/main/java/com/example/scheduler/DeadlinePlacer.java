@@ -0,0 +1,82 @@
+package com.example.scheduler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Earliest-deadline-first ordering with a feasibility check.
+ *
+ * Capacity before any instant is a prefix sum of open slots over whole days plus the open slots
+ * of the due day that end in time. Walking tasks by due date, each one reserves its slots if the
+ * work of everything admitted so far plus its own still fits before its due date; otherwise it is
+ * reported late and moved behind the admitted tasks, so one impossible task does not push tasks
+ * that can still make it past their deadlines. The check never touches individual slots, so it
+ * is cheap enough to run before building the schedule itself.
+ */
+final class DeadlinePlacer {
+
+    private DeadlinePlacer() {}
+
+    /**
+     * @param prioritizedTasks tasks in priority order, which decides among equal due dates
+     *                         and orders the tasks without a due date
+     */
+    static DeadlineReport check(LocalDate startDate,
+                                RunLengthDay[] days,
+                                Granularity granularity,
+                                List<Task> prioritizedTasks) {
+        long[] openBeforeDay = new long[days.length + 1];
+        for (int d = 0; d < days.length; d++) {
+            openBeforeDay[d + 1] = openBeforeDay[d] + days[d].openCount();
+        }
+
+        List<Task> dated = new ArrayList<>();
+        List<Task> undated = new ArrayList<>();
+        for (Task task : prioritizedTasks) {
+            (task.getDueDateTime() != null ? dated : undated).add(task);
+        }
+        // List.sort is stable, so priority order is kept among equal due dates
+        dated.sort(Comparator.comparing(Task::getDueDateTime));
+
+        List<Task> order = new ArrayList<>(prioritizedTasks.size());
+        List<Task> late = new ArrayList<>();
+        List<DeadlineReport.LateTask> lateTasks = new ArrayList<>();
+
+        long reserved = 0;
+        for (Task task : dated) {
+            int need = granularity.slotsFor(task.getEstimatedMinutes());
+            long capacity = capacityBefore(task.getDueDateTime(), startDate, days, openBeforeDay);
+
+            if (reserved + need <= capacity) {
+                order.add(task);
+                reserved += need;
+            } else {
+                late.add(task);
+                long missing = Math.min(need, reserved + need - capacity);
+                lateTasks.add(new DeadlineReport.LateTask(
+                        task.getName(), task.getDueDateTime(), (int) missing * granularity.minutes()));
+            }
+        }
+        order.addAll(late);
+        order.addAll(undated);
+
+        return new DeadlineReport(lateTasks, order);
+    }
+
+    // open slots of the horizon that end at or before due; unbounded past the horizon's end
+    private static long capacityBefore(LocalDateTime due,
+                                       LocalDate startDate,
+                                       RunLengthDay[] days,
+                                       long[] openBeforeDay) {
+        long d = ChronoUnit.DAYS.between(startDate, due.toLocalDate());
+        if (d < 0) return 0;
+        if (d >= days.length) return Long.MAX_VALUE / 2;
+
+        int i = (int) d;
+        return openBeforeDay[i] + days[i].openBefore(due.getHour() * 60 + due.getMinute());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.scheduler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outcome of the deadline feasibility check: which tasks cannot be finished by their due
+ * date, and the order a deadline-aware schedule places tasks in.
+ */
+public class DeadlineReport {
+
+    private final List<LateTask> lateTasks;
+    private final List<Task> placementOrder;
+
+    DeadlineReport(List<LateTask> lateTasks, List<Task> placementOrder) {
+        this.lateTasks = lateTasks;
+        this.placementOrder = placementOrder;
+    }
+
+    public boolean isFeasible() { return lateTasks.isEmpty(); }
+
+    public List<LateTask> getLateTasks() { return lateTasks; }
+
+    // on-time tasks by deadline, then late tasks by deadline, then tasks without a due date
+    List<Task> placementOrder() { return placementOrder; }
+
+    public static class LateTask {
+        private final String name;
+        private final LocalDateTime dueDateTime;
+        private final int missingMinutes;
+
+        LateTask(String name, LocalDateTime dueDateTime, int missingMinutes) {
+            this.name = name;
+            this.dueDateTime = dueDateTime;
+            this.missingMinutes = missingMinutes;
+        }
+
+        public String getName() { return name; }
+        public LocalDateTime getDueDateTime() { return dueDateTime; }
+
+        /** Work that does not fit before the due date. */
+        public int getMissingMinutes() { return missingMinutes; }
+    }
+}
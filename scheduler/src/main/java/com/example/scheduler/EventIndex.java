@@ -0,0 +1,65 @@
+package com.example.scheduler;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calendar events indexed by date, with each day's busy time as a normalized interval set.
+ * Built once per schedule request so that blocking a day only touches that day's events.
+ */
+class EventIndex {
+
+    // busy minutes of the day, overlapping events merged
+    private final Map<LocalDate, IntervalSet> byDate;
+
+    private EventIndex(Map<LocalDate, IntervalSet> byDate) {
+        this.byDate = byDate;
+    }
+
+    static EventIndex of(List<CalendarEvent> events) {
+        Map<LocalDate, List<CalendarEvent>> grouped = new HashMap<>();
+        for (CalendarEvent event : events) {
+            if (event.getDate() == null || event.getStartTime() == null || event.getEndTime() == null) continue;
+            grouped.computeIfAbsent(event.getDate(), k -> new ArrayList<>()).add(event);
+        }
+
+        Map<LocalDate, IntervalSet> byDate = new HashMap<>(grouped.size() * 2);
+        for (Map.Entry<LocalDate, List<CalendarEvent>> day : grouped.entrySet()) {
+            List<CalendarEvent> dayEvents = day.getValue();
+            dayEvents.sort(Comparator.comparing(CalendarEvent::getStartTime));
+
+            int[] spans = new int[dayEvents.size() * 2];
+            for (int i = 0; i < dayEvents.size(); i++) {
+                CalendarEvent event = dayEvents.get(i);
+                spans[2 * i] = event.getStartTime().toSecondOfDay() / 60;
+                spans[2 * i + 1] = event.getEndTime().toSecondOfDay() / 60;
+            }
+            byDate.put(day.getKey(), IntervalSet.of(spans));
+        }
+
+        return new EventIndex(byDate);
+    }
+
+    /**
+     * Busy time on the given date in minutes of the day.
+     */
+    IntervalSet busyOn(LocalDate date) {
+        return byDate.getOrDefault(date, IntervalSet.EMPTY);
+    }
+
+    /**
+     * Hash of the busy time falling in [start, start + days), used to tell whether
+     * a previously computed schedule for that range is still valid.
+     */
+    long fingerprint(LocalDate start, int days) {
+        long hash = 17;
+        for (int i = 0; i < days; i++) {
+            hash = 31 * hash + busyOn(start.plusDays(i)).hashCode();
+        }
+        return hash;
+    }
+}
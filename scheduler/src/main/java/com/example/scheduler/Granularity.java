@@ -0,0 +1,55 @@
+package com.example.scheduler;
+
+import java.time.LocalTime;
+
+/**
+ * Length of the slots a schedule is planned in, plus the work/break rhythm expressed in those slots.
+ * The rhythm keeps the 45/15 ratio: three slots of work per slot of break, with breaks at least
+ * 15 minutes long. At 15 minutes that is the usual 45 + 15; at 60 minutes it is 3h + 1h.
+ */
+final class Granularity {
+    static final int DEFAULT_MINUTES = 15;
+    private static final int[] SUPPORTED = {5, 10, 15, 20, 30, 60};
+
+    private final int minutes;
+    private final int workSlots;
+    private final int breakSlots;
+
+    private Granularity(int minutes) {
+        this.minutes = minutes;
+        this.breakSlots = Math.max(1, (15 + minutes - 1) / minutes);
+        this.workSlots = 3 * breakSlots;
+    }
+
+    static Granularity of(int minutes) {
+        if (!isSupported(minutes)) {
+            throw new IllegalArgumentException("Unsupported block length: " + minutes + " minutes");
+        }
+        return new Granularity(minutes);
+    }
+
+    static boolean isSupported(int minutes) {
+        for (int m : SUPPORTED) {
+            if (m == minutes) return true;
+        }
+        return false;
+    }
+
+    /**
+     * The time at the given minute of the day; minute 1440 wraps to midnight.
+     */
+    static LocalTime toLocalTime(int minuteOfDay) {
+        return LocalTime.MIDNIGHT.plusMinutes(minuteOfDay);
+    }
+
+    int minutes() { return minutes; }
+    int workSlots() { return workSlots; }
+    int breakSlots() { return breakSlots; }
+
+    /**
+     * Slots needed to cover the given minutes. Rounds up so short tasks are never dropped.
+     */
+    int slotsFor(int taskMinutes) {
+        return taskMinutes <= 0 ? 0 : (taskMinutes + minutes - 1) / minutes;
+    }
+}
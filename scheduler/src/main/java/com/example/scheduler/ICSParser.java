@@ -8,18 +8,38 @@ import net.fortuna.ical4j.model.property.DtStart;
 import net.fortuna.ical4j.model.property.DtEnd;
 import net.fortuna.ical4j.model.property.Summary;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ICSParser {
 
+    private static final Logger log = LoggerFactory.getLogger(ICSParser.class);
+
+    private static final DateTimeFormatter ICS_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
     /**
      * Parse an ICS file and extract calendar events
      * Only includes events with specific start and end times
@@ -57,8 +77,7 @@ public class ICSParser {
             }
 
         } catch (Exception e) {
-            System.err.println("Error parsing ICS file: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error parsing ICS file: {}", e.getMessage(), e);
         }
 
         return events;
@@ -102,4 +121,316 @@ public class ICSParser {
                 .atZone(ZoneId.systemDefault())
                 .toLocalDateTime();
     }
-}
\ No newline at end of file
+
+    /**
+     * Stream the VEVENTs of an ICS file to the consumer one at a time, in file order.
+     * The file is read line by line with continuation lines unfolded, and only the event being
+     * read is held, so memory is bounded by the largest event rather than by the file.
+     * Times are converted to the system time zone, as parseICSStream does; components nested in
+     * an event (alarms) are ignored; events without a start and all-day events (a DATE start,
+     * which blocks no time of the day) are skipped.
+     * Recurring events are passed on as their first occurrence only.
+     * Exceptions thrown by the consumer are passed on.
+     * @return number of events handed to the consumer
+     */
+    public int streamICS(InputStream input, Consumer<CalendarEvent> consumer) throws IOException {
+        return streamICS(input, consumer, null);
+    }
+
+    /**
+     * As {@link #streamICS(InputStream, Consumer)}, but events with an RRULE are passed to
+     * the series consumer as rules instead of as their first occurrence. Series are held until
+     * the end of the file and handed over last, with their EXDATEs and the occurrences moved or
+     * cancelled by RECURRENCE-ID events (which may come anywhere in the file) taken out; a moved
+     * occurrence arrives as a single event. A rule that cannot be expanded (see
+     * {@link RecurrenceRule}) is passed as a single event.
+     * @return number of events and series handed over
+     */
+    public int streamICS(InputStream input, Consumer<CalendarEvent> consumer,
+                         Consumer<RecurringEvent> seriesConsumer) throws IOException {
+        UnfoldingReader reader = new UnfoldingReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        Map<String, Optional<ZoneId>> zones = new HashMap<>();
+
+        List<RecurringEvent> series = new ArrayList<>();
+        Map<String, List<LocalDate>> moved = new HashMap<>();   // UID -> occurrences replaced
+
+        List<ContentLine> event = null;     // properties of the VEVENT being read
+        int nested = 0;                     // components open inside it
+        int count = 0;
+
+        String line;
+        while ((line = reader.next()) != null) {
+            ContentLine property = ContentLine.parse(line);
+            if (property == null) continue;
+
+            switch (property.name()) {
+                case "BEGIN" -> {
+                    if (event != null) {
+                        nested++;
+                    } else if ("VEVENT".equalsIgnoreCase(property.value().trim())) {
+                        event = new ArrayList<>();
+                    }
+                }
+                case "END" -> {
+                    if (event != null && nested > 0) {
+                        nested--;
+                    } else if (event != null) {
+                        RecurringEvent recurring = seriesConsumer != null ? toRecurringEvent(event, zones) : null;
+                        if (recurring != null) {
+                            series.add(recurring);
+                        } else if (seriesConsumer != null && first(event, "RECURRENCE-ID") != null) {
+                            count += replaceOccurrence(event, zones, moved, consumer);
+                        } else {
+                            CalendarEvent calEvent = toCalendarEvent(event, zones);
+                            if (calEvent != null) {
+                                consumer.accept(calEvent);
+                                count++;
+                            }
+                        }
+                        event = null;
+                    }
+                }
+                default -> {
+                    if (event != null && nested == 0) event.add(property);
+                }
+            }
+        }
+
+        for (RecurringEvent recurring : series) {
+            for (LocalDate date : moved.getOrDefault(recurring.getUid(), List.of())) {
+                recurring.addExceptionDate(date);
+            }
+            seriesConsumer.accept(recurring);
+            count++;
+        }
+        return count;
+    }
+
+    // a single occurrence of a series, moved or cancelled: the original date is noted for the series
+    private int replaceOccurrence(List<ContentLine> properties, Map<String, Optional<ZoneId>> zones,
+                                  Map<String, List<LocalDate>> moved, Consumer<CalendarEvent> consumer) {
+        ContentLine uid = first(properties, "UID");
+        if (uid != null) {
+            try {
+                LocalDate original = toLocalDateTime(first(properties, "RECURRENCE-ID"), zones).toLocalDate();
+                moved.computeIfAbsent(uid.value().trim(), k -> new ArrayList<>()).add(original);
+            } catch (DateTimeException e) {
+                log.debug("Ignoring unreadable RECURRENCE-ID: {}", e.getMessage());
+            }
+        }
+
+        ContentLine status = first(properties, "STATUS");
+        if (status != null && "CANCELLED".equalsIgnoreCase(status.value().trim())) return 0;
+
+        CalendarEvent calEvent = toCalendarEvent(properties, zones);
+        if (calEvent == null) return 0;
+        consumer.accept(calEvent);
+        return 1;
+    }
+
+    /**
+     * @return the series, or null if the event has no RRULE or one that cannot be expanded
+     */
+    private RecurringEvent toRecurringEvent(List<ContentLine> properties, Map<String, Optional<ZoneId>> zones) {
+        ContentLine rrule = first(properties, "RRULE");
+        ContentLine dtStart = first(properties, "DTSTART");
+        if (rrule == null || dtStart == null || isDate(dtStart)) return null;
+
+        try {
+            LocalDateTime until = untilOf(rrule.value(), zones);
+            if (RecurrenceRule.parse(rrule.value(), until) == null) return null;
+
+            LocalDateTime start = toLocalDateTime(dtStart, zones);
+            LocalDateTime end = endOf(properties, start, zones);
+            ContentLine uid = first(properties, "UID");
+            ContentLine summary = first(properties, "SUMMARY");
+
+            RecurringEvent recurring = new RecurringEvent(
+                    uid != null ? uid.value().trim() : null,
+                    summary != null ? unescape(summary.value()) : "Untitled Event",
+                    start.toLocalDate(),
+                    start.toLocalTime(),
+                    end.toLocalTime(),
+                    rrule.value().trim(),
+                    until
+            );
+            for (ContentLine exdate : properties) {
+                if (!exdate.name().equals("EXDATE")) continue;
+                for (String value : exdate.value().split(",")) {
+                    ContentLine single = new ContentLine("EXDATE", exdate.params(), value);
+                    recurring.addExceptionDate(toLocalDateTime(single, zones).toLocalDate());
+                }
+            }
+            return recurring;
+        } catch (DateTimeException | ArithmeticException e) {
+            log.debug("Reading recurring event as a single one: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // UNTIL is a UTC or floating date-time, or a date that is included whole
+    private static LocalDateTime untilOf(String rrule, Map<String, Optional<ZoneId>> zones) {
+        for (String part : rrule.trim().split(";")) {
+            if (!part.toUpperCase().startsWith("UNTIL=")) continue;
+
+            ContentLine until = new ContentLine("UNTIL", Map.of(), part.substring("UNTIL=".length()));
+            LocalDateTime time = toLocalDateTime(until, zones);
+            return isDate(until) ? time.toLocalDate().atTime(LocalTime.MAX) : time;
+        }
+        return null;
+    }
+
+    // null for an all-day event, which would otherwise block midnight to midnight as a zero-length event
+    private CalendarEvent toCalendarEvent(List<ContentLine> properties, Map<String, Optional<ZoneId>> zones) {
+        ContentLine dtStart = first(properties, "DTSTART");
+        if (dtStart == null || isDate(dtStart)) return null;
+
+        try {
+            LocalDateTime start = toLocalDateTime(dtStart, zones);
+            LocalDateTime end = endOf(properties, start, zones);
+            ContentLine summary = first(properties, "SUMMARY");
+
+            CalendarEvent calEvent = new CalendarEvent(
+                    start.toLocalDate(),
+                    start.toLocalTime(),
+                    end.toLocalTime(),
+                    summary != null ? unescape(summary.value()) : "Untitled Event"
+            );
+            calEvent.setAsFixedEvent();
+            calEvent.setIcsKey(icsKey(properties));
+            return calEvent;
+        } catch (DateTimeException | ArithmeticException e) {
+            log.debug("Skipping event with unreadable times: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // the UID, and for an occurrence moved out of a series also the RECURRENCE-ID; null without a UID
+    private static String icsKey(List<ContentLine> properties) {
+        ContentLine uid = first(properties, "UID");
+        if (uid == null) return null;
+
+        ContentLine recurrenceId = first(properties, "RECURRENCE-ID");
+        return recurrenceId == null ? uid.value().trim() : uid.value().trim() + "|" + recurrenceId.value().trim();
+    }
+
+    // DTEND, else DTSTART plus DURATION, else no time
+    private LocalDateTime endOf(List<ContentLine> properties, LocalDateTime start,
+                                Map<String, Optional<ZoneId>> zones) {
+        ContentLine dtEnd = first(properties, "DTEND");
+        if (dtEnd != null) return toLocalDateTime(dtEnd, zones);
+
+        ContentLine duration = first(properties, "DURATION");
+        if (duration != null) return start.plus(parseDuration(duration.value().trim()));
+
+        return start;
+    }
+
+    /**
+     * A DATE or DATE-TIME value as local time of the system zone: UTC (Z) and TZID times are
+     * converted, floating times are taken as they are, dates start at midnight.
+     * A TZID Java does not know is treated as floating.
+     */
+    static LocalDateTime toLocalDateTime(ContentLine property, Map<String, Optional<ZoneId>> zones) {
+        String value = property.value().trim();
+        if (isDate(property)) {
+            return LocalDate.parse(value, DateTimeFormatter.BASIC_ISO_DATE).atStartOfDay();
+        }
+
+        boolean utc = value.endsWith("Z") || value.endsWith("z");
+        LocalDateTime time = LocalDateTime.parse(utc ? value.substring(0, value.length() - 1) : value, ICS_DATE_TIME);
+
+        ZoneId zone = utc ? ZoneOffset.UTC : null;
+        String tzid = property.param("TZID");
+        if (zone == null && tzid != null) {
+            zone = zones.computeIfAbsent(tzid, ICSParser::zoneOf).orElse(null);
+        }
+        return zone == null ? time : time.atZone(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    static boolean isDate(ContentLine property) {
+        return "DATE".equalsIgnoreCase(property.param("VALUE")) || property.value().trim().length() == 8;
+    }
+
+    private static Optional<ZoneId> zoneOf(String tzid) {
+        try {
+            return Optional.of(ZoneId.of(tzid.startsWith("/") ? tzid.substring(1) : tzid));
+        } catch (DateTimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    // RFC 5545 durations; java.time has no weeks, so P<n>W is handled here
+    static Duration parseDuration(String value) {
+        if (value.endsWith("W")) {
+            boolean negative = value.startsWith("-");
+            int p = value.indexOf('P');
+            long weeks = Long.parseLong(value.substring(p + 1, value.length() - 1));
+            return Duration.ofDays(7 * (negative ? -weeks : weeks));
+        }
+        return Duration.parse(value.startsWith("+") ? value.substring(1) : value);
+    }
+
+    static ContentLine first(List<ContentLine> properties, String name) {
+        for (ContentLine property : properties) {
+            if (property.name().equals(name)) return property;
+        }
+        return null;
+    }
+
+    // TEXT values escape backslash, semicolon, comma and newline
+    static String unescape(String text) {
+        if (text.indexOf('\\') < 0) return text;
+
+        StringBuilder out = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                out.append(next == 'n' || next == 'N' ? '\n' : next);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Content lines with folding undone: a line starting with a space or tab continues the previous one.
+     */
+    private static final class UnfoldingReader {
+        private final BufferedReader reader;
+        private String pending;
+        private boolean started;
+
+        UnfoldingReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        String next() throws IOException {
+            String line = started ? pending : firstLine();
+            if (line == null) return null;
+
+            StringBuilder unfolded = null;
+            String following;
+            while ((following = reader.readLine()) != null && isContinuation(following)) {
+                if (unfolded == null) unfolded = new StringBuilder(line);
+                unfolded.append(following, 1, following.length());
+            }
+            pending = following;
+            return unfolded != null ? unfolded.toString() : line;
+        }
+
+        private String firstLine() throws IOException {
+            started = true;
+            String line = reader.readLine();
+            // a byte order mark is not part of the first line
+            return line != null && line.startsWith("\uFEFF") ? line.substring(1) : line;
+        }
+
+        private static boolean isContinuation(String line) {
+            return !line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t');
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.scheduler;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for one ICS upload, from reading the file to storing its events.
+ */
+@Name("com.example.scheduler.IcsImport")
+@Label("ICS Import")
+@Category("Scheduler")
+@Description("An uploaded calendar file parsed and diffed against the stored events")
+@StackTrace(false)
+class IcsImportEvent extends Event {
+
+    @Label("File Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Events")
+    int eventCount;
+
+    @Label("Rows Written")
+    @Description("Events and recurring series inserted, updated or deleted")
+    int writeCount;
+
+    @Label("Parse Time")
+    @Timespan
+    long parseNanos;
+
+    @Label("Persist Time")
+    @Timespan
+    long persistNanos;
+}
@@ -0,0 +1,69 @@
+package com.example.scheduler;
+
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps the last computed weekly placement and repairs it as tasks change,
+ * so a single task mutation does not force a full rebuild on the next page load.
+ * TaskManager reports every task write here once it has committed, so a rolled back write never
+ * reaches the plan; anything it can't describe calls invalidate().
+ */
+@Service
+public class IncrementalRescheduler {
+
+    private PlacementPlan plan;
+    private long generation;
+
+    /**
+     * Entries of the current plan if it was built for the same inputs, otherwise null.
+     */
+    public synchronized List<CalendarEvent> currentEntries(LocalDate startDate,
+                                                           WorkingHours hours,
+                                                           int blockMinutes,
+                                                           long eventsFingerprint) {
+        if (plan == null || !plan.matches(startDate, hours, blockMinutes, eventsFingerprint)) {
+            return null;
+        }
+        return plan.entries();
+    }
+
+    /**
+     * Generation to pass to install(); read it before loading the tasks a new plan is built from.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Adopt a freshly built plan, unless a task changed after its inputs were read.
+     */
+    synchronized void install(PlacementPlan newPlan, long builtAtGeneration) {
+        if (builtAtGeneration == generation) {
+            plan = newPlan;
+        }
+    }
+
+    public synchronized void onTaskSaved(Task task) {
+        generation++;
+        if (plan != null && task != null) {
+            LocalDate day = plan.getStartDate();
+            plan.taskSaved(task, t -> PriorityIndex.priority(t, day));
+        }
+    }
+
+    public synchronized void onTaskRemoved(UUID taskId) {
+        generation++;
+        if (plan != null) {
+            plan.taskRemoved(taskId);
+        }
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        plan = null;
+    }
+}
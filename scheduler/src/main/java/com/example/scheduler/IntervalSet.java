@@ -0,0 +1,180 @@
+package com.example.scheduler;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of [start, end) minute intervals, kept sorted, disjoint and with touching
+ * intervals merged, packed into one int array.
+ *
+ * Union, intersection and difference are single merge passes over both operands, so combining
+ * working windows with a day's calendar events is linear in the number of intervals no matter
+ * how many windows a day has.
+ */
+final class IntervalSet {
+    static final IntervalSet EMPTY = new IntervalSet(new int[0]);
+
+    // packed [start0, end0, start1, end1, ...]
+    private final int[] bounds;
+
+    private IntervalSet(int[] bounds) {
+        this.bounds = bounds;
+    }
+
+    static IntervalSet of(int start, int end) {
+        return end > start ? new IntervalSet(new int[]{start, end}) : EMPTY;
+    }
+
+    /**
+     * Normalize packed start/end pairs. Pairs may come in any order; overlapping or touching
+     * intervals merge and empty ones are dropped. Already sorted input is merged in one pass.
+     */
+    static IntervalSet of(int[] pairs) {
+        int n = pairs.length / 2;
+        boolean sorted = true;
+        for (int i = 1; i < n && sorted; i++) {
+            sorted = pairs[2 * i - 2] <= pairs[2 * i];
+        }
+        if (!sorted) {
+            long[] keyed = new long[n];
+            for (int i = 0; i < n; i++) {
+                keyed[i] = ((long) pairs[2 * i] << 32) | (pairs[2 * i + 1] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(keyed);
+            pairs = new int[2 * n];
+            for (int i = 0; i < n; i++) {
+                pairs[2 * i] = (int) (keyed[i] >> 32);
+                pairs[2 * i + 1] = (int) keyed[i];
+            }
+        }
+
+        Builder out = new Builder(pairs.length);
+        for (int i = 0; i < n; i++) {
+            out.add(pairs[2 * i], pairs[2 * i + 1]);
+        }
+        return out.build();
+    }
+
+    int size() { return bounds.length / 2; }
+
+    boolean isEmpty() { return bounds.length == 0; }
+
+    int start(int i) { return bounds[2 * i]; }
+
+    int end(int i) { return bounds[2 * i + 1]; }
+
+    int totalLength() {
+        int total = 0;
+        for (int i = 0; i < bounds.length; i += 2) {
+            total += bounds[i + 1] - bounds[i];
+        }
+        return total;
+    }
+
+    IntervalSet union(IntervalSet other) {
+        Builder out = new Builder(bounds.length + other.bounds.length);
+        int i = 0;
+        int j = 0;
+        while (i < size() || j < other.size()) {
+            if (j >= other.size() || (i < size() && start(i) <= other.start(j))) {
+                out.add(start(i), end(i));
+                i++;
+            } else {
+                out.add(other.start(j), other.end(j));
+                j++;
+            }
+        }
+        return out.build();
+    }
+
+    IntervalSet intersect(IntervalSet other) {
+        Builder out = new Builder(bounds.length + other.bounds.length);
+        int i = 0;
+        int j = 0;
+        while (i < size() && j < other.size()) {
+            out.add(Math.max(start(i), other.start(j)), Math.min(end(i), other.end(j)));
+            // drop whichever interval ends first; the other may still overlap the next one
+            if (end(i) < other.end(j)) i++;
+            else j++;
+        }
+        return out.build();
+    }
+
+    IntervalSet subtract(IntervalSet other) {
+        Builder out = new Builder(bounds.length + other.bounds.length);
+        int j = 0;
+        for (int i = 0; i < size(); i++) {
+            int cursor = start(i);
+            int end = end(i);
+
+            // intervals of other that end before this one starts cannot touch any later one either
+            while (j < other.size() && other.end(j) <= cursor) j++;
+
+            for (int k = j; k < other.size() && other.start(k) < end; k++) {
+                out.add(cursor, other.start(k));
+                cursor = Math.max(cursor, other.end(k));
+            }
+            out.add(cursor, end);
+        }
+        return out.build();
+    }
+
+    /**
+     * Each interval stretched at its end to a whole number of steps from its start,
+     * merging any that then overlap.
+     */
+    IntervalSet padToMultipleOf(int step) {
+        Builder out = new Builder(bounds.length);
+        for (int i = 0; i < size(); i++) {
+            int length = end(i) - start(i);
+            out.add(start(i), start(i) + (length + step - 1) / step * step);
+        }
+        return out.build();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof IntervalSet other && Arrays.equals(bounds, other.bounds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bounds);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(Granularity.toLocalTime(start(i))).append('-').append(Granularity.toLocalTime(end(i)));
+        }
+        return sb.append(']').toString();
+    }
+
+    // appends intervals in start order, merging into the last one where they overlap or touch
+    private static final class Builder {
+        private int[] bounds;
+        private int length;
+
+        Builder(int capacity) {
+            bounds = new int[Math.max(2, capacity)];
+        }
+
+        void add(int start, int end) {
+            if (end <= start) return;
+            if (length > 0 && start <= bounds[length - 1]) {
+                bounds[length - 1] = Math.max(bounds[length - 1], end);
+                return;
+            }
+            if (length == bounds.length) {
+                bounds = Arrays.copyOf(bounds, length * 2);
+            }
+            bounds[length++] = start;
+            bounds[length++] = end;
+        }
+
+        IntervalSet build() {
+            return length == 0 ? EMPTY : new IntervalSet(Arrays.copyOf(bounds, length));
+        }
+    }
+}
@@ -2,20 +2,31 @@ package com.example.scheduler;
 
 import com.example.scheduler.database.CalendarEventRepository;
 import com.example.scheduler.database.TaskRepository;
-import com.example.scheduler.database.UserProfileRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.LinkedHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 /**
@@ -24,82 +35,123 @@ import java.util.stream.Collectors;
 @Controller
 public class MainController {
 
+    private static final int MAX_EXPORT_DAYS = 730;
+
     @Autowired private TaskRepository taskRepository;
     @Autowired private CalendarEventRepository calendarEventRepository;
     @Autowired private ScheduleLogic scheduleLogic;
-    @Autowired private UserProfileRepository userProfileRepository;
+    @Autowired private ProfileCache profileCache;
     @Autowired private TaskManager taskManager;
+    @Autowired private ScheduleCache scheduleCache;
+    @Autowired private DataVersion dataVersion;
+    @Autowired private ScheduleTraces scheduleTraces;
+    @Autowired private RecurrenceExpander recurrenceExpander;
 
     @GetMapping("/")
     public String index(Model model) {
         LocalDate today = LocalDate.now();
 
-        UserProfile profile = userProfileRepository
-                .findByUsername("default")
-                .orElse(null);
-
-        // fallback if profile or window doesn't exist
-        LocalTime workStart = LocalTime.of(9, 0);
-        LocalTime workEnd = LocalTime.of(17, 0);
+        // defaults if the profile doesn't exist
+        ProfileSettings settings = profileCache.get("default");
+        WorkingHours hours = settings.hours();
+        int blockMinutes = settings.blockMinutes();
 
-        if (profile != null && !profile.getWorkingWindows().isEmpty()) {
-            WorkingWindow w = profile.getWorkingWindows().get(0);
-            workStart = w.getStartTime();
-            workEnd = w.getEndTime();
-        }
+        // Reuse today's entries while nothing they depend on has changed
+        ScheduleCache.Key key = new ScheduleCache.Key(
+                "default", today, 1, hours, blockMinutes, PlacementMode.PRIORITY, dataVersion.current());
 
-        // Finds all blocked events
-        List<CalendarEvent> blockedEvents =
-                calendarEventRepository.findAll();
-        // Gets today's entries
-        List<CalendarEvent> todayEntries =
-                scheduleLogic.buildDailySchedule(today, workStart, workEnd, List.of(), blockedEvents);
-        // Add fixed events to today's entries
-        todayEntries.addAll(calendarEventRepository.findByDate(LocalDate.now()));
-        todayEntries.sort(Comparator.comparing(CalendarEvent::getStartTime));
+        List<CalendarEvent> todayEntries = scheduleCache.get(key, () -> {
+            // Only today's events block today's slots
+            List<CalendarEvent> blockedEvents = calendarEventRepository.findByDate(today);
+            // Gets today's entries; a day has at most this many slots, and tasks are placed in order,
+            // so tasks ranked below those that already need them all can't be reached
+            int slotsPerDay = 24 * 60 / blockMinutes;
+            List<CalendarEvent> entries =
+                    scheduleLogic.buildDailySchedule(today, hours, blockMinutes,
+                            taskManager.getTasksFilling(slotsPerDay, blockMinutes), blockedEvents);
+            // Add fixed events and today's occurrences of recurring ones to today's entries
+            entries.addAll(blockedEvents);
+            entries.addAll(recurrenceExpander.occurrences(today, 1));
+            entries.sort(Comparator.comparing(CalendarEvent::getStartTime));
+            return entries;
+        });
 
         model.addAttribute("todayEntries", todayEntries);
-        model.addAttribute("events", calendarEventRepository.findAll());
         return "index";
     }
 
 
     @GetMapping("/tasks")
     public String tasks(Model model) {
-        model.addAttribute("tasks", taskRepository.findAll());
+        // display columns only; the page shows no tags, so none are loaded
+        model.addAttribute("tasks", taskRepository.findAllRows());
         return "tasks";
     }
 
     @PostMapping("/tasks/add")
     public String addNewTask(Task task) {
-        taskRepository.save(task);
+        taskManager.addTask(task);
         return "redirect:/tasks";
     }
 
     @GetMapping("/schedule")
-    public String schedule(Model model) {
+    public String schedule(Model model,
+                           @RequestParam(required = false) String mode,
+                           @RequestParam(defaultValue = "false") boolean trace) {
 
         LocalDate weekStart = LocalDate.now();
 
-        UserProfile profile = userProfileRepository
-                .findByUsername("default")
-                .orElse(null);
+        ProfileSettings settings = profileCache.get("default");
+        WorkingHours hours = settings.hours();
+        int blockMinutes = settings.blockMinutes();
+
+        PlacementMode placement = PlacementMode.fromParam(mode);
+        Productivity productivity = settings.productivity();
 
-        LocalTime workStart = LocalTime.of(9, 0);
-        LocalTime workEnd = LocalTime.of(17, 0);
+        // Repeated reads of an unchanged week are served from memory
+        ScheduleCache.Key key = new ScheduleCache.Key(
+                "default", weekStart, 7, hours, blockMinutes, placement, dataVersion.current());
 
-        if (profile != null && !profile.getWorkingWindows().isEmpty()) {
-            WorkingWindow w = profile.getWorkingWindows().get(0);
-            workStart = w.getStartTime();
-            workEnd = w.getEndTime();
+        // The week's events, read at most once per view and only if something needs them
+        Supplier<List<CalendarEvent>> weekEvents =
+                once(() -> calendarEventRepository.findInWindow(weekStart, weekStart.plusDays(7)));
+
+        // The deadline check is cheap, so it runs on every view to list the tasks that will be late
+        DeadlineReport deadlines = null;
+        if (placement == PlacementMode.DEADLINE) {
+            deadlines = scheduleLogic.checkDeadlines(weekStart, 7, hours, blockMinutes,
+                    taskManager.getIncompleteTasks(), weekEvents.get());
         }
 
-        List<CalendarEvent> blockedEvents =
-                calendarEventRepository.findAll();
+        // A traced view is built afresh, since a cached schedule has no decisions to record
+        PlacementTrace placementTrace = placement.isTraceable()
+                ? scheduleTraces.start("default", trace)
+                : PlacementTrace.OFF;
+
+        Supplier<List<CalendarEvent>> build = () -> {
+            List<CalendarEvent> blockedEvents = weekEvents.get();
 
-        List<CalendarEvent> entries =
-                scheduleLogic.buildWeeklySchedule(weekStart, workStart, workEnd, blockedEvents);
-        entries.addAll(calendarEventRepository.findAll());
+            List<CalendarEvent> weekEntries = switch (placement) {
+                case PRODUCTIVITY -> scheduleLogic.buildProductivitySchedule(weekStart, 7, hours,
+                        blockMinutes, productivity, taskManager.getIncompleteTasks(), blockedEvents);
+                case DEADLINE -> scheduleLogic.buildDeadlineSchedule(weekStart, 7, hours,
+                        blockMinutes, taskManager.getIncompleteTasks(), blockedEvents, placementTrace);
+                case OPTIMIZED -> scheduleLogic.buildOptimizedSchedule(weekStart, 7, hours,
+                        blockMinutes, productivity, taskManager.getIncompleteTasks(), blockedEvents);
+                case PRIORITY -> scheduleLogic.buildWeeklySchedule(weekStart, hours, blockMinutes,
+                        blockedEvents, placementTrace);
+            };
+            weekEntries.addAll(blockedEvents);
+            weekEntries.addAll(recurrenceExpander.occurrences(weekStart, 7));
+            return weekEntries;
+        };
+        List<CalendarEvent> entries;
+        if (placementTrace.enabled()) {
+            entries = build.get();
+            scheduleTraces.finish("default", placementTrace);
+        } else {
+            entries = scheduleCache.get(key, build);
+        }
 
         Map<LocalDate, List<CalendarEvent>> entriesByDate =
                 entries.stream()
@@ -114,10 +166,100 @@ public class MainController {
         }
         model.addAttribute("entriesByDate", entriesByDate);
         model.addAttribute("weekStart", weekStart);
+        model.addAttribute("mode", placement);
+        model.addAttribute("lateTasks", deadlines != null ? deadlines.getLateTasks() : List.of());
 
         return "schedule";
     }
 
+    /**
+     * Planning export over a long horizon as CSV. Entries are streamed to the response
+     * day by day as they are scheduled, so a year of schedule is never held in memory.
+     */
+    @GetMapping("/schedule/export")
+    public ResponseEntity<StreamingResponseBody> exportSchedule(
+            @RequestParam(defaultValue = "365") int days) {
+
+        LocalDate start = LocalDate.now();
+        LocalDate end = start.plusDays(Math.max(1, Math.min(days, MAX_EXPORT_DAYS)));
+
+        ProfileSettings settings = profileCache.get("default");
+        WorkingHours hours = settings.hours();
+        int blockMinutes = settings.blockMinutes();
+
+        List<Task> tasks = taskManager.getIncompleteTasks();
+        List<CalendarEvent> blockedEvents = calendarEventRepository.findInWindow(start, end);
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write("date,start,end,minutes,title\n");
+
+            try (Stream<CalendarEvent> entries = scheduleLogic.streamSchedule(
+                    start, end, hours, blockMinutes, tasks, blockedEvents)) {
+                for (CalendarEvent e : (Iterable<CalendarEvent>) entries::iterator) {
+                    writer.write(e.getDate() + "," + e.getStartTime() + "," + e.getEndTime() + ","
+                            + e.getWorkMinutes() + "," + csv(e.getTitle()) + "\n");
+                }
+            }
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"schedule.csv\"")
+                .body(body);
+    }
+
+    // the supplier's value, read on first use and kept for the rest of the request
+    private static <T> Supplier<T> once(Supplier<T> supplier) {
+        List<T> value = new ArrayList<>(1);
+        return () -> {
+            if (value.isEmpty()) value.add(supplier.get());
+            return value.get(0);
+        };
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    @GetMapping("/schedule/cache")
+    @ResponseBody
+    public Map<String, Object> scheduleCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", scheduleCache.getHits());
+        stats.put("misses", scheduleCache.getMisses());
+        stats.put("evictions", scheduleCache.getEvictions());
+        stats.put("size", scheduleCache.getSize());
+        stats.put("hitRatio", scheduleCache.getHitRatio());
+        stats.put("dataVersion", dataVersion.current());
+        stats.put("recurrenceHits", recurrenceExpander.getHits());
+        stats.put("recurrenceMisses", recurrenceExpander.getMisses());
+        stats.put("recurrenceSize", recurrenceExpander.getSize());
+        return stats;
+    }
+
+    /**
+     * Placement decisions of the last traced schedule view (/schedule?trace=true).
+     */
+    @GetMapping("/schedule/trace")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> scheduleTrace() {
+        PlacementTrace trace = scheduleTraces.latest("default");
+        if (trace == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("recorded", trace.recorded());
+        body.put("dropped", trace.dropped());
+        body.put("records", trace.records());
+        return ResponseEntity.ok(body);
+    }
+
     // Clear all tasks
     @PostMapping("/tasks/clear")
     public String clearTasks() {
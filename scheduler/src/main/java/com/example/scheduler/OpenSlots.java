@@ -0,0 +1,123 @@
+package com.example.scheduler;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every open slot of a horizon flattened into time order, as parallel primitive arrays.
+ * Placement engines that don't fill slots strictly in order work on these positions and
+ * produce one task index per position; toEntries() turns that back into schedule entries.
+ */
+final class OpenSlots {
+    static final int FREE = -1;
+
+    private final LocalDate startDate;
+    private final int blockMinutes;
+    private final int[] day;        // day offset from startDate
+    private final int[] minute;     // start minute of day
+
+    private OpenSlots(LocalDate startDate, int blockMinutes, int[] day, int[] minute) {
+        this.startDate = startDate;
+        this.blockMinutes = blockMinutes;
+        this.day = day;
+        this.minute = minute;
+    }
+
+    static OpenSlots of(LocalDate startDate, RunLengthDay[] days, Granularity granularity) {
+        int total = 0;
+        for (RunLengthDay d : days) {
+            total += d.openCount();
+        }
+
+        int[] day = new int[total];
+        int[] minute = new int[total];
+        int step = granularity.minutes();
+        int[] next = {0};
+
+        for (int d = 0; d < days.length; d++) {
+            int dayIndex = d;
+            days[d].forEachStretch(0, days[d].openCount(), (startMinute, endMinute) -> {
+                for (int m = startMinute; m < endMinute; m += step) {
+                    day[next[0]] = dayIndex;
+                    minute[next[0]++] = m;
+                }
+            });
+        }
+
+        return new OpenSlots(startDate, step, day, minute);
+    }
+
+    int size() { return day.length; }
+
+    int dayOf(int pos) { return day[pos]; }
+
+    int minuteOf(int pos) { return minute[pos]; }
+
+    int blockMinutes() { return blockMinutes; }
+
+    LocalDate startDate() { return startDate; }
+
+    // whether pos + 1 continues pos without a gap (same day, no break or event in between)
+    boolean adjacent(int pos) {
+        return pos + 1 < day.length
+                && day[pos + 1] == day[pos]
+                && minute[pos + 1] == minute[pos] + blockMinutes;
+    }
+
+    /**
+     * The greedy assignment: tasks take consecutive positions, one after another in the given order.
+     * @return task index (into tasks) per position, FREE where nothing fits or nothing is left
+     */
+    int[] fill(List<Task> tasks, List<Task> order, Granularity granularity) {
+        Map<Task, Integer> index = new IdentityHashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            index.put(tasks.get(i), i);
+        }
+
+        int[] taskAt = new int[day.length];
+        Arrays.fill(taskAt, FREE);
+        int pos = 0;
+        for (int i = 0; i < order.size() && pos < taskAt.length; i++) {
+            int task = index.get(order.get(i));
+            int end = Math.min(taskAt.length, pos + granularity.slotsFor(order.get(i).getEstimatedMinutes()));
+            Arrays.fill(taskAt, pos, end, task);
+            pos = end;
+        }
+        return taskAt;
+    }
+
+    /**
+     * Entries for an assignment, merging adjacent positions of the same task.
+     * @param taskAt task index per position, FREE where nothing is placed
+     */
+    List<CalendarEvent> toEntries(int[] taskAt, List<Task> tasks) {
+        List<CalendarEvent> entries = new ArrayList<>();
+
+        int pos = 0;
+        while (pos < day.length) {
+            int task = taskAt[pos];
+            int first = pos;
+            while (adjacent(pos) && taskAt[pos + 1] == task) {
+                pos++;
+            }
+            pos++;
+
+            if (task == FREE) continue;
+
+            int startMinute = minute[first];
+            int endMinute = minute[pos - 1] + blockMinutes;
+            entries.add(new CalendarEvent(
+                    startDate.plusDays(day[first]),
+                    Granularity.toLocalTime(startMinute),
+                    Granularity.toLocalTime(endMinute),
+                    tasks.get(task).getName(),
+                    endMinute - startMinute
+            ));
+        }
+        return entries;
+    }
+}
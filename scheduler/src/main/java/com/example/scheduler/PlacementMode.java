@@ -0,0 +1,31 @@
+package com.example.scheduler;
+
+/**
+ * How tasks are assigned to the open slots of a schedule.
+ */
+public enum PlacementMode {
+    /** Highest priority first, earliest slots first. */
+    PRIORITY,
+    /** Most complex tasks into the user's most productive parts of the day. */
+    PRODUCTIVITY,
+    /** Earliest due date first, tasks that cannot make their deadline after the rest. */
+    DEADLINE,
+    /** The better greedy placement, improved by local search within a time budget. */
+    OPTIMIZED;
+
+    /**
+     * Whether placement decisions can be traced; only the consecutive fill of PRIORITY and DEADLINE records them.
+     */
+    public boolean isTraceable() {
+        return this == PRIORITY || this == DEADLINE;
+    }
+
+    public static PlacementMode fromParam(String value) {
+        if (value != null) {
+            for (PlacementMode mode : values()) {
+                if (mode.name().equalsIgnoreCase(value)) return mode;
+            }
+        }
+        return PRIORITY;
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.scheduler;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * The last computed multi-day slot assignment, kept so it can be repaired instead of rebuilt.
+ *
+ * Tasks fill the open slots of the horizon consecutively in priority order, spilling
+ * from one day into the next. Task i therefore owns open positions
+ * [start[i], start[i] + demand(i)), and a change to task k only moves tasks k and later.
+ * The assignment is fully described by those offsets plus each day's run-length encoded
+ * availability, so nothing is stored per slot. Each repair recomputes the offsets of the
+ * suffix and re-materializes the days it touched.
+ */
+class PlacementPlan {
+    private static final int PARALLEL_MIN_DAYS = 14;
+
+    private final LocalDate startDate;
+    private final WorkingHours hours;
+    private final Granularity granularity;
+    private final long eventsFingerprint;
+
+    private final RunLengthDay[] days;
+    private final int[] dayOffset;      // first open position of each day, dayOffset[days] = capacity
+    private final List<Task> tasks;     // priority order, highest first
+    private int[] start;                // first open position of each task, start[n] = total demand
+    private int placedEnd;              // open positions currently assigned
+    private final List<List<CalendarEvent>> entries;
+    private PlacementTrace trace = PlacementTrace.OFF;
+
+    PlacementPlan(LocalDate startDate,
+                  WorkingHours hours,
+                  Granularity granularity,
+                  long eventsFingerprint,
+                  RunLengthDay[] days,
+                  List<Task> prioritizedTasks) {
+        this(startDate, hours, granularity, eventsFingerprint, days, prioritizedTasks, PlacementTrace.OFF);
+    }
+
+    /**
+     * @param trace receives the decisions of the initial placement; later repairs are not traced
+     */
+    PlacementPlan(LocalDate startDate,
+                  WorkingHours hours,
+                  Granularity granularity,
+                  long eventsFingerprint,
+                  RunLengthDay[] days,
+                  List<Task> prioritizedTasks,
+                  PlacementTrace trace) {
+        this.startDate = startDate;
+        this.hours = hours;
+        this.granularity = granularity;
+        this.eventsFingerprint = eventsFingerprint;
+        this.days = days;
+
+        this.dayOffset = new int[days.length + 1];
+        for (int d = 0; d < days.length; d++) {
+            dayOffset[d + 1] = dayOffset[d] + days[d].openCount();
+        }
+
+        this.tasks = new ArrayList<>(prioritizedTasks);
+        this.start = new int[tasks.size() + 1];
+        this.entries = new ArrayList<>(days.length);
+        for (int d = 0; d < days.length; d++) {
+            entries.add(List.of());
+        }
+
+        if (trace.enabled()) {
+            this.trace = trace;
+            trace.begin(startDate, tasks);
+        }
+        repair(0);
+        if (trace.enabled()) {
+            for (int t = 0; t < tasks.size(); t++) {
+                if (start[t] >= dayOffset[days.length]) {
+                    trace.unplaced(t, tasks.get(t).getEstimatedMinutes());
+                }
+            }
+            this.trace = PlacementTrace.OFF;
+        }
+    }
+
+    boolean matches(LocalDate startDate,
+                    WorkingHours hours,
+                    int blockMinutes,
+                    long eventsFingerprint) {
+        return this.startDate.equals(startDate)
+                && this.hours.equals(hours)
+                && this.granularity.minutes() == blockMinutes
+                && this.eventsFingerprint == eventsFingerprint;
+    }
+
+    LocalDate getStartDate() { return startDate; }
+
+    /**
+     * All entries of the horizon in day order, as a new list the caller may modify.
+     */
+    List<CalendarEvent> entries() {
+        List<CalendarEvent> all = new ArrayList<>();
+        for (List<CalendarEvent> day : entries) {
+            all.addAll(day);
+        }
+        return all;
+    }
+
+    /**
+     * Insert, move or refresh a task after it was saved. Completed tasks are dropped.
+     * @param priority the tasks' priorities on the plan's start date
+     */
+    void taskSaved(Task task, ToDoubleFunction<Task> priority) {
+        int from = indexOf(task.getId());
+        if (from >= 0) {
+            tasks.remove(from);
+        }
+
+        int to = tasks.size();
+        if (!task.isDone()) {
+            to = insertionPoint(task, priority);
+            tasks.add(to, task);
+        }
+
+        int k = from >= 0 ? Math.min(from, to) : to;
+        if (k < tasks.size() || from >= 0) {
+            repair(k);
+        }
+    }
+
+    void taskRemoved(UUID taskId) {
+        int from = indexOf(taskId);
+        if (from < 0) return;
+
+        tasks.remove(from);
+        repair(from);
+    }
+
+    private int indexOf(UUID taskId) {
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i).getId().equals(taskId)) return i;
+        }
+        return -1;
+    }
+
+    // first index whose task ranks strictly after the given one; each task is scored once
+    private int insertionPoint(Task task, ToDoubleFunction<Task> priority) {
+        double taskPriority = priority.applyAsDouble(task);
+        int lo = 0;
+        int hi = tasks.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            Task other = tasks.get(mid);
+            if (PriorityIndex.compare(other, priority.applyAsDouble(other), task, taskPriority) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Re-place tasks k and later. Tasks before k keep their positions.
+     */
+    private void repair(int k) {
+        int n = tasks.size();
+        if (start.length < n + 1) {
+            start = Arrays.copyOf(start, Math.max(n + 1, start.length * 2));
+        }
+        for (int i = k; i < n; i++) {
+            start[i + 1] = start[i] + granularity.slotsFor(tasks.get(i).getEstimatedMinutes());
+        }
+
+        int capacity = dayOffset[days.length];
+        int oldEnd = placedEnd;
+        int newEnd = Math.min(start[n], capacity);
+        int from = Math.min(start[k], capacity);
+        int to = Math.max(oldEnd, newEnd);
+        placedEnd = newEnd;
+
+        if (days.length == 0) return;
+
+        // everything from k on may have moved, so refresh from the first day it touches
+        int firstDay = dayOf(from);
+        int lastDay = to > from ? dayOf(to - 1) : firstDay;
+
+        // days materialize independently once placement is settled
+        IntStream dirty = IntStream.rangeClosed(firstDay, lastDay);
+        if (lastDay - firstDay >= PARALLEL_MIN_DAYS) {
+            dirty = dirty.parallel();
+        }
+        dirty.forEach(d -> entries.set(d, materialize(d)));
+    }
+
+    private List<CalendarEvent> materialize(int d) {
+        List<CalendarEvent> dayEntries = new ArrayList<>();
+        LocalDate date = startDate.plusDays(d);
+
+        int dayStart = dayOffset[d];
+        int dayEnd = Math.min(dayOffset[d + 1], placedEnd);
+
+        // first task still running when this day begins, then every task that starts within it
+        for (int t = firstTaskEndingAfter(dayStart); t < tasks.size() && start[t] < dayEnd; t++) {
+            int from = Math.max(start[t], dayStart) - dayStart;
+            int to = Math.min(start[t + 1], dayEnd) - dayStart;
+            if (from >= to) continue;
+
+            Task task = tasks.get(t);
+            if (trace.enabled()) {
+                traceTask(d, t, from, to);
+            }
+            days[d].forEachStretch(from, to, (startMinute, endMinute) -> dayEntries.add(new CalendarEvent(
+                    date,
+                    Granularity.toLocalTime(startMinute),
+                    Granularity.toLocalTime(endMinute),
+                    task.getName(),
+                    endMinute - startMinute
+            )));
+        }
+        return dayEntries;
+    }
+
+    // explain the stretches task t gets on day d: what it waited behind and what it still needs after each
+    private void traceTask(int d, int t, int from, int to) {
+        RunLengthDay day = days[d];
+        int dayStart = dayOffset[d];
+        int minutes = granularity.minutes();
+        int estimated = tasks.get(t).getEstimatedMinutes();
+
+        int[] last = {-1, Math.max(start[t], dayStart) - start[t]};     // end of the previous stretch, slots so far
+        if (from > 0) {
+            // the task starts here, after the open slots the tasks ranked above it were given
+            day.forEachStretch(from - 1, from, (startMinute, endMinute) -> last[0] = endMinute);
+            day.forEachStretch(0, 1, (startMinute, endMinute) ->
+                    trace.skipped(t, d, startMinute, last[0], PlacementTrace.Reason.TAKEN, from));
+        }
+
+        day.forEachStretch(from, to, (startMinute, endMinute) -> {
+            if (last[0] >= 0 && startMinute > last[0]) {
+                PlacementTrace.Reason reason = day.sameRun(last[0] - 1, startMinute)
+                        ? PlacementTrace.Reason.BREAK
+                        : PlacementTrace.Reason.BUSY;
+                trace.skipped(t, d, last[0], startMinute, reason, 0);
+            }
+            last[1] += (endMinute - startMinute) / minutes;
+            trace.placed(t, d, startMinute, endMinute, Math.max(0, estimated - last[1] * minutes));
+            last[0] = endMinute;
+        });
+    }
+
+    private int firstTaskEndingAfter(int pos) {
+        int lo = 0;
+        int hi = tasks.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (start[mid + 1] <= pos) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // day holding open position pos; positions past the end map to the last day
+    private int dayOf(int pos) {
+        int lo = 0;
+        int hi = days.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (dayOffset[mid + 1] <= pos) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
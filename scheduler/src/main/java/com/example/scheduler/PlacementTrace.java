@@ -0,0 +1,140 @@
+package com.example.scheduler;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Why each task landed where it did in one schedule build, kept in a bounded ring buffer.
+ *
+ * Every decision is packed into two longs, so tracing allocates nothing per record and
+ * a long build keeps only its most recent decisions. {@link #OFF} has no buffer at all;
+ * placement code checks {@link #enabled()} once and skips tracing entirely when it is off.
+ */
+public final class PlacementTrace {
+
+    /** Tracing disabled: records nothing. */
+    public static final PlacementTrace OFF = new PlacementTrace(0);
+
+    public enum Kind {
+        /** the task got this stretch of slots */
+        PLACED,
+        /** the time before the stretch was not used for the task */
+        SKIPPED,
+        /** the horizon ran out before the task got any slot */
+        UNPLACED
+    }
+
+    public enum Reason {
+        NONE,
+        /** the day's earlier open slots were held by higher ranked tasks */
+        TAKEN,
+        /** a break of the work/break rhythm */
+        BREAK,
+        /** a calendar event or time outside the working windows */
+        BUSY,
+        /** no open slot left in the horizon */
+        NO_CAPACITY
+    }
+
+    /**
+     * One decoded decision. For PLACED, remainingMinutes is what the task still needs
+     * after this stretch; for TAKEN, heldSlots counts the open slots ranked tasks held before it.
+     */
+    public record Record(Kind kind,
+                         Reason reason,
+                         String task,
+                         LocalDate date,
+                         LocalTime start,
+                         LocalTime end,
+                         int remainingMinutes,
+                         int heldSlots) {}
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final Reason[] REASONS = Reason.values();
+
+    private final int capacity;
+    private final long[] words;         // two per record, oldest overwritten first
+    private final AtomicLong next = new AtomicLong();
+
+    private volatile LocalDate startDate;
+    private volatile List<Task> tasks = List.of();
+
+    PlacementTrace(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.words = new long[2 * this.capacity];
+    }
+
+    boolean enabled() { return capacity > 0; }
+
+    /**
+     * Start a build over the given tasks, in the order their indexes refer to.
+     */
+    void begin(LocalDate startDate, List<Task> tasks) {
+        this.startDate = startDate;
+        this.tasks = List.copyOf(tasks);
+    }
+
+    void placed(int task, int day, int startMinute, int endMinute, int remainingMinutes) {
+        add(Kind.PLACED, Reason.NONE, task, day, startMinute, endMinute, remainingMinutes);
+    }
+
+    void skipped(int task, int day, int startMinute, int endMinute, Reason reason, int heldSlots) {
+        add(Kind.SKIPPED, reason, task, day, startMinute, endMinute, heldSlots);
+    }
+
+    void unplaced(int task, int remainingMinutes) {
+        add(Kind.UNPLACED, Reason.NO_CAPACITY, task, 0, 0, 0, remainingMinutes);
+    }
+
+    // kind 2 bits, reason 3 bits, day 27 bits, task 32 bits | start 16 bits, end 16 bits, value 32 bits
+    private void add(Kind kind, Reason reason, int task, int day, int startMinute, int endMinute, int value) {
+        int slot = (int) (next.getAndIncrement() % capacity);
+        words[2 * slot] = (long) kind.ordinal() << 62 | (long) reason.ordinal() << 59
+                | (long) (day & 0x7FFFFFF) << 32 | (task & 0xFFFFFFFFL);
+        words[2 * slot + 1] = (long) (startMinute & 0xFFFF) << 48 | (long) (endMinute & 0xFFFF) << 32
+                | (value & 0xFFFFFFFFL);
+    }
+
+    /** Decisions recorded in total, including those overwritten. */
+    public long recorded() { return next.get(); }
+
+    /** Decisions overwritten because the buffer was full. */
+    public long dropped() { return Math.max(0, next.get() - capacity); }
+
+    /**
+     * The retained decisions, oldest first. Meant to be read once the build has finished.
+     */
+    public List<Record> records() {
+        long end = next.get();
+        long begin = Math.max(0, end - capacity);
+        List<Record> records = new ArrayList<>((int) (end - begin));
+
+        for (long i = begin; i < end; i++) {
+            int slot = (int) (i % capacity);
+            long head = words[2 * slot];
+            long body = words[2 * slot + 1];
+
+            Kind kind = KINDS[(int) (head >>> 62)];
+            Reason reason = REASONS[(int) (head >>> 59) & 0x7];
+            int day = (int) (head >>> 32) & 0x7FFFFFF;
+            int task = (int) head;
+            int value = (int) body;
+
+            boolean timed = kind != Kind.UNPLACED;
+            records.add(new Record(
+                    kind,
+                    reason,
+                    task < tasks.size() ? tasks.get(task).getName() : null,
+                    timed ? startDate.plusDays(day) : null,
+                    timed ? Granularity.toLocalTime((int) (body >>> 48) & 0xFFFF) : null,
+                    timed ? Granularity.toLocalTime((int) (body >>> 32) & 0xFFFF) : null,
+                    reason == Reason.TAKEN ? 0 : value,
+                    reason == Reason.TAKEN ? value : 0
+            ));
+        }
+        return records;
+    }
+}
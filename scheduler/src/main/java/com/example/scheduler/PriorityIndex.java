@@ -0,0 +1,208 @@
+package com.example.scheduler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Incomplete tasks kept in scheduling order, so reading them never sorts.
+ *
+ * Each task's priority is computed once, when it is written, and stored next to it in a
+ * balanced tree ordered by priority, then due date (none last), then id. A write moves one
+ * entry in O(log n); reading the top k walks the first k entries. Priorities only depend on the
+ * task and the date, so when the date changes every entry is recomputed once, on the next read.
+ *
+ * TaskManager reports its writes once they commit, together with the task version
+ * (DataVersion.tasks()) they moved the tasks to. The index follows that version while
+ * every step of it is a write it was told about; a task write it was not told about, e.g.
+ * straight through the repository, leaves the version ahead and the next read loads again.
+ */
+final class PriorityIndex {
+
+    private record Entry(Task task, double priority) {}
+
+    private static final Comparator<LocalDateTime> NULLS_LAST_TIME = Comparator.nullsLast(Comparator.naturalOrder());
+    private static final Comparator<UUID> NULLS_LAST_ID = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private static final Comparator<Entry> ORDER = (a, b) -> compare(a.task(), a.priority(), b.task(), b.priority());
+
+    private final TreeSet<Entry> ordered = new TreeSet<>(ORDER);
+    private final Map<UUID, Entry> byId = new HashMap<>();
+    private LocalDate day;      // date the stored priorities were computed for; null until loaded
+    private long version;       // task version the entries reflect
+
+    /**
+     * Scheduling order of single tasks, the same order the index keeps: highest priority first,
+     * then earliest due date (none last), then id.
+     */
+    static Comparator<Task> order(LocalDate today) {
+        return (a, b) -> compare(a, priority(a, today), b, priority(b, today));
+    }
+
+    /**
+     * A task's priority: bit-for-bit the score the batch scorer gives it when the index is loaded
+     * (PriorityScorerTest checks), so a task ranked on its own lands exactly where a reload would put it.
+     */
+    static double priority(Task task, LocalDate today) {
+        return task.computePriority(today);
+    }
+
+    /**
+     * The scheduling order for tasks whose priorities are already known.
+     */
+    static int compare(Task a, double aPriority, Task b, double bPriority) {
+        int comparison = Double.compare(bPriority, aPriority);
+        if (comparison != 0) return comparison;
+        comparison = NULLS_LAST_TIME.compare(a.getDueDateTime(), b.getDueDateTime());
+        if (comparison != 0) return comparison;
+        return NULLS_LAST_ID.compare(a.getId(), b.getId());
+    }
+
+    /**
+     * The k highest priority incomplete tasks.
+     * @param tasksVersion current task version; a write the index was not told about has moved it on
+     * @param source every incomplete task, read only when the index has to be (re)loaded
+     */
+    synchronized List<Task> top(int k, LocalDate today, long tasksVersion,
+                                Supplier<? extends Collection<Task>> source) {
+        refresh(today, tasksVersion, source);
+
+        List<Task> top = new ArrayList<>(Math.min(k, ordered.size()));
+        Iterator<Entry> it = ordered.iterator();
+        while (top.size() < k && it.hasNext()) {
+            top.add(it.next().task());
+        }
+        return top;
+    }
+
+    /**
+     * The highest priority incomplete tasks, down to the first one that takes their total past the
+     * given number of slots. Tasks are placed in this order, so those ranked lower cannot get any of
+     * them; tasks without a duration take no slots and never count towards the total.
+     */
+    synchronized List<Task> filling(int slots, Granularity granularity, LocalDate today, long tasksVersion,
+                                    Supplier<? extends Collection<Task>> source) {
+        refresh(today, tasksVersion, source);
+
+        List<Task> top = new ArrayList<>();
+        long taken = 0;
+        Iterator<Entry> it = ordered.iterator();
+        while (taken < slots && it.hasNext()) {
+            Task task = it.next().task();
+            top.add(task);
+            taken += granularity.slotsFor(task.getEstimatedMinutes());
+        }
+        return top;
+    }
+
+    // a write between reading the version and loading only makes the next call load again
+    private void refresh(LocalDate today, long tasksVersion, Supplier<? extends Collection<Task>> source) {
+        if (day == null || version != tasksVersion) {
+            load(source.get(), today);
+            version = tasksVersion;
+        } else if (!day.equals(today)) {
+            load(tasks(), today);
+        }
+    }
+
+    /**
+     * Record a created or edited task; completed tasks leave the index.
+     * @param tasksVersion task version once the write committed
+     */
+    synchronized void put(Task task, long tasksVersion) {
+        if (day == null || task == null || task.getId() == null) return;
+
+        evict(task.getId());
+        if (!task.isDone()) {
+            Entry entry = new Entry(task, priority(task, day));
+            ordered.add(entry);
+            byId.put(task.getId(), entry);
+        }
+        advance(tasksVersion, 1);
+    }
+
+    /**
+     * Record deleted tasks, each one write.
+     * @param tasksVersion task version once the deletes committed
+     */
+    synchronized void remove(Collection<UUID> taskIds, long tasksVersion) {
+        if (day == null) return;
+
+        for (UUID taskId : taskIds) {
+            evict(taskId);
+        }
+        advance(tasksVersion, taskIds.size());
+    }
+
+    // a write saving an unchanged row does not move the version; anything beyond the writes
+    // reported here came from elsewhere or from another write still on its way, so wait for a reload
+    private void advance(long tasksVersion, int writes) {
+        if (tasksVersion - version <= writes) {
+            version = Math.max(version, tasksVersion);
+        }
+    }
+
+    private void evict(UUID taskId) {
+        Entry entry = byId.remove(taskId);
+        if (entry != null) {
+            ordered.remove(entry);
+        }
+    }
+
+    /**
+     * Drop everything; the next read loads the index again.
+     */
+    synchronized void clear() {
+        ordered.clear();
+        byId.clear();
+        day = null;
+    }
+
+    // (re)rank everything in one batch over the tasks' columns
+    private void load(Collection<Task> tasks, LocalDate today) {
+        PrioritySortEvent jfr = new PrioritySortEvent();
+        jfr.begin();
+
+        ordered.clear();
+        byId.clear();
+        day = today;
+
+        List<Task> incomplete = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            if (!task.isDone() && task.getId() != null) incomplete.add(task);
+        }
+        double[] priorities = PriorityScorer.score(TaskColumns.of(incomplete, today), PriorityWeights.DEFAULT);
+
+        for (int i = 0; i < incomplete.size(); i++) {
+            Entry entry = new Entry(incomplete.get(i), priorities[i]);
+            // a task listed twice keeps its last occurrence, as put() would
+            Entry previous = byId.put(entry.task().getId(), entry);
+            if (previous != null) ordered.remove(previous);
+            ordered.add(entry);
+        }
+
+        jfr.end();
+        if (jfr.shouldCommit()) {
+            jfr.kind = "index";
+            jfr.taskCount = incomplete.size();
+            jfr.commit();
+        }
+    }
+
+    private List<Task> tasks() {
+        List<Task> tasks = new ArrayList<>(byId.size());
+        for (Entry entry : byId.values()) {
+            tasks.add(entry.task());
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.scheduler;
+
+/**
+ * Scores many tasks at once from their columns.
+ *
+ * The loop reads four int arrays and writes one double array with no calls, branches or
+ * object loads in between, which is the shape the JIT compiles into SIMD instructions.
+ * For the same weights each score is bit-for-bit what PriorityWeights.score returns.
+ */
+public final class PriorityScorer {
+
+    private PriorityScorer() {}
+
+    public static double[] score(TaskColumns columns, PriorityWeights weights) {
+        double[] scores = new double[columns.size()];
+        score(columns, weights, scores);
+        return scores;
+    }
+
+    /**
+     * Write each task's score into out, which must hold at least columns.size() values.
+     */
+    public static void score(TaskColumns columns, PriorityWeights weights, double[] out) {
+        int n = columns.size();
+        int[] importance = columns.importance;
+        int[] daysToDue = columns.daysToDue;
+        int[] minutes = columns.estimatedMinutes;
+        int[] complexity = columns.complexity;
+
+        double wImportance = weights.importance();
+        double wUrgency = weights.urgency();
+        double wHours = weights.hours();
+        double wComplexity = weights.complexity();
+
+        for (int i = 0; i < n; i++) {
+            out[i] = (wImportance * importance[i])
+                    + (wUrgency / (daysToDue[i] + 1))
+                    + wHours * (minutes[i] / 60.0)
+                    + wComplexity * complexity[i];
+        }
+    }
+}
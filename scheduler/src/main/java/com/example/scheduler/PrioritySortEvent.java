@@ -0,0 +1,26 @@
+package com.example.scheduler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for ranking a set of tasks by priority.
+ */
+@Name("com.example.scheduler.PrioritySort")
+@Label("Priority Sort")
+@Category("Scheduler")
+@Description("Tasks scored and ordered by priority")
+@StackTrace(false)
+class PrioritySortEvent extends Event {
+
+    /** "sort" for a full sort of every task, "index" for a priority index (re)load */
+    @Label("Kind")
+    String kind;
+
+    @Label("Tasks")
+    int taskCount;
+}
@@ -0,0 +1,24 @@
+package com.example.scheduler;
+
+/**
+ * Coefficients of the task priority formula
+ * {@code importance * I + urgency / (D + 1) + hours * T + complexity * C},
+ * where I is importance (1-5), D days until due, T estimated hours and C complexity (1-5).
+ * DEFAULT is the formula tasks have always been ranked by; other weightings can be passed
+ * to the batch scorer.
+ */
+public record PriorityWeights(double importance, double urgency, double hours, double complexity) {
+
+    /** Priority = (3*I) + 10/(D+1) + T + C */
+    public static final PriorityWeights DEFAULT = new PriorityWeights(3, 10, 1, 1);
+
+    /**
+     * Score of a single task. PriorityScorer evaluates the same expression over whole columns.
+     */
+    public double score(int importance, int daysToDue, int estimatedMinutes, int complexity) {
+        return (this.importance * importance)
+                + (urgency / (daysToDue + 1))
+                + hours * (estimatedMinutes / 60.0)
+                + this.complexity * complexity;
+    }
+}
@@ -25,7 +25,10 @@ public class Productivity {
     }
 
     public static DayPart dayPart(LocalTime t) {
-        int h = t.getHour();
+        return dayPart(t.getHour());
+    }
+
+    public static DayPart dayPart(int h) {
         if (h >= 5 && h < 12) return DayPart.MORNING;
         if (h >= 12 && h < 17) return DayPart.AFTERNOON;
         if (h >= 17 && h < 21) return DayPart.EVENING;
@@ -46,12 +49,18 @@ public class Productivity {
     public void setNight(Double night) { this.night = night; }
 
     public static double productivityWeight(Productivity p, LocalTime slotStart) {
-        return switch (dayPart(slotStart)) {
-            case MORNING -> p.getMorning();
-            case AFTERNOON -> p.getAfternoon();
-            case EVENING -> p.getEvening();
-            case NIGHT -> p.getNight();
+        return p.weight(dayPart(slotStart));
+    }
+
+    // weight for a part of the day; unset values count as normal productivity
+    public double weight(DayPart part) {
+        Double w = switch (part) {
+            case MORNING -> morning;
+            case AFTERNOON -> afternoon;
+            case EVENING -> evening;
+            case NIGHT -> night;
         };
+        return w != null ? w : 1.0;
     }
 
 }
\ No newline at end of file
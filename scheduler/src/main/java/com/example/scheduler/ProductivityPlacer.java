@@ -0,0 +1,92 @@
+package com.example.scheduler;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Places the most complex tasks in the slots where the user is most productive.
+ *
+ * Which tasks are placed follows priority, as in the other modes: when the horizon is short,
+ * the lowest ranked tasks are the ones left out, however complex. Open slots are bucketed by
+ * productivity weight (one bucket per distinct weight, so parts of the day that weigh the same
+ * are filled chronologically together) with a counting pass, and the placed tasks are ordered by
+ * complexity, keeping priority order among equals. Each task then takes the earliest remaining
+ * slots of the best non-empty bucket. That is O(slots + tasks log tasks), with no scan of the
+ * horizon per task.
+ */
+final class ProductivityPlacer {
+
+    private ProductivityPlacer() {}
+
+    /**
+     * @param prioritizedTasks tasks in priority order, highest first
+     * @return task index (into prioritizedTasks) per open position, OpenSlots.FREE where unused
+     */
+    static int[] place(OpenSlots slots,
+                       List<Task> prioritizedTasks,
+                       Productivity productivity,
+                       Granularity granularity) {
+        Productivity.DayPart[] parts = Productivity.DayPart.values();
+
+        // distinct weights, best first; each day part maps onto the bucket of its weight
+        double[] weights = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            weights[i] = productivity.weight(parts[i]);
+        }
+        double[] distinct = Arrays.stream(weights).distinct().sorted().toArray();
+        int buckets = distinct.length;
+        int[] bucketOfPart = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            bucketOfPart[i] = buckets - 1 - Arrays.binarySearch(distinct, weights[i]);
+        }
+
+        // counting sort of positions into buckets, keeping time order within each bucket
+        int n = slots.size();
+        int[] bucketOf = new int[n];
+        int[] bucketStart = new int[buckets + 1];
+        for (int pos = 0; pos < n; pos++) {
+            int hour = slots.minuteOf(pos) / 60 % 24;
+            bucketOf[pos] = bucketOfPart[Productivity.dayPart(hour).ordinal()];
+            bucketStart[bucketOf[pos] + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        int[] ordered = new int[n];
+        int[] fill = Arrays.copyOf(bucketStart, buckets);
+        for (int pos = 0; pos < n; pos++) {
+            ordered[fill[bucketOf[pos]]++] = pos;
+        }
+
+        // which tasks are placed is decided by priority alone: take them in priority order until
+        // the horizon is full, the last one capped at what is left
+        int count = 0;
+        int[] need = new int[prioritizedTasks.size()];
+        for (int left = n; count < need.length && left > 0; count++) {
+            need[count] = Math.min(left, granularity.slotsFor(prioritizedTasks.get(count).getEstimatedMinutes()));
+            left -= need[count];
+        }
+
+        // only then are the chosen tasks matched to slots, most complex first;
+        // the sort is stable, so priority order decides among equals
+        Integer[] byComplexity = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            byComplexity[i] = i;
+        }
+        Arrays.sort(byComplexity, (a, b) -> Integer.compare(
+                prioritizedTasks.get(b).getComplexity(), prioritizedTasks.get(a).getComplexity()));
+
+        int[] taskAt = new int[n];
+        Arrays.fill(taskAt, OpenSlots.FREE);
+
+        // buckets are laid out best first, so one cursor walks them in order
+        int cursor = 0;
+        for (int task : byComplexity) {
+            for (int k = 0; k < need[task]; k++) {
+                taskAt[ordered[cursor++]] = task;
+            }
+        }
+
+        return taskAt;
+    }
+}
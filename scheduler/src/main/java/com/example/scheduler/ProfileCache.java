@@ -0,0 +1,48 @@
+package com.example.scheduler;
+
+import com.example.scheduler.database.UserProfileRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of each user's profile settings. A miss reads the profile with its working
+ * windows in one query (entity graph); after that page views read no profile at all until
+ * the profile is saved and the entry invalidated.
+ */
+@Component
+public class ProfileCache {
+
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    private final Map<String, ProfileSettings> settings = new ConcurrentHashMap<>();
+    // bumped by every invalidation, so a load that raced with a save is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * The user's settings, or {@link ProfileSettings#DEFAULT} if they have no profile.
+     */
+    public ProfileSettings get(String username) {
+        ProfileSettings cached = settings.get(username);
+        if (cached != null) return cached;
+
+        long before = generation.get();
+        ProfileSettings loaded = userProfileRepository.findWithWindowsByUsername(username)
+                .map(ProfileSettings::of)
+                .orElse(ProfileSettings.DEFAULT);
+        settings.compute(username, (name, current) -> generation.get() == before ? loaded : current);
+        return loaded;
+    }
+
+    /**
+     * Drop the user's settings; call once a changed profile is saved.
+     */
+    public void invalidate(String username) {
+        generation.incrementAndGet();
+        settings.remove(username);
+    }
+}
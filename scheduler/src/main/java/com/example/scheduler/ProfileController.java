@@ -1,7 +1,8 @@
 package com.example.scheduler;
 
-import com.example.scheduler.database.CalendarEventRepository;
 import com.example.scheduler.database.UserProfileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -10,7 +11,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 /**
@@ -19,55 +23,44 @@ import java.util.List;
 @Controller
 public class ProfileController {
 
+    private static final Logger log = LoggerFactory.getLogger(ProfileController.class);
+
     @Autowired private UserProfileRepository userProfileRepository;
-    @Autowired private CalendarEventRepository calendarEventRepository;
     @Autowired private ICSParser icsParser;
+    @Autowired private DataVersion dataVersion;
+    @Autowired private SchedulerMetrics metrics;
+    @Autowired private CalendarImporter calendarImporter;
+    @Autowired private ProfileCache profileCache;
 
     @GetMapping("/profile")
     public String profilePage(Model model) {
-        UserProfile profile = userProfileRepository
-                .findByUsername("default")
-                .orElseGet(() -> {
-                    UserProfile p = new UserProfile();
-                    p.setUsername("default");
-                    return userProfileRepository.save(p);
-                });
-
-        String workStart = "09:00";
-        String workEnd = "17:00";
-
-        if (!profile.getWorkingWindows().isEmpty()) {
-            WorkingWindow w = profile.getWorkingWindows().get(0);
-            if (w.getStartTime() != null) workStart = w.getStartTime().toString();
-            if (w.getEndTime() != null) workEnd = w.getEndTime().toString();
-        }
-
-        if (profile.getProductivity() == null) {
-            profile.setProductivity(new Productivity());
-            userProfileRepository.save(profile);
-        }
+        // a user without a saved profile sees the defaults; saving creates the profile
+        ProfileSettings settings = profileCache.get("default");
 
-        model.addAttribute("workStart", workStart);
-        model.addAttribute("workEnd", workEnd);
-        model.addAttribute("productivity", profile.getProductivity());
+        model.addAttribute("windows", settings.windows());
+        model.addAttribute("days", DayOfWeek.values());
+        model.addAttribute("blockMinutes", settings.blockMinutes());
+        model.addAttribute("productivity", settings.productivity());
         return "profile";
     }
 
     @PostMapping("/profile/save")
-    public String saveProfile(@RequestParam String workStart,
-                              @RequestParam String workEnd,
+    public String saveProfile(@RequestParam List<String> workStart,
+                              @RequestParam List<String> workEnd,
+                              @RequestParam(required = false) List<String> windowDay,
                               @RequestParam Double morning,
                               @RequestParam Double afternoon,
                               @RequestParam Double evening,
-                              @RequestParam Double night) {
+                              @RequestParam Double night,
+                              @RequestParam(defaultValue = "15") Integer blockMinutes) {
 
-        System.out.println("DEBUG: /profile/save called");
-        System.out.println("DEBUG: workStart=" + workStart + ", workEnd=" + workEnd);
-        System.out.println("DEBUG: productivity = "
-                + morning + ", " + afternoon + ", " + evening + ", " + night);
+        if (log.isDebugEnabled()) {
+            log.debug("Saving profile: workStart={}, workEnd={}, productivity={}, {}, {}, {}",
+                    workStart, workEnd, morning, afternoon, evening, night);
+        }
 
         UserProfile profile = userProfileRepository
-                .findByUsername("default")
+                .findWithWindowsByUsername("default")
                 .orElseGet(() -> {
                     UserProfile p = new UserProfile();
                     p.setUsername("default");
@@ -75,67 +68,106 @@ public class ProfileController {
                 });
 
         profile.setProductivity(new Productivity(morning, afternoon, evening, night));
+        profile.setBlockMinutes(blockMinutes);
 
+        // one window per filled-in row; rows left blank, ending before they start or with values
+        // the form cannot produce are skipped
         profile.getWorkingWindows().clear();
-        profile.addWorkingWindow(new WorkingWindow(LocalTime.parse(workStart), LocalTime.parse(workEnd)));
+        for (int i = 0; i < Math.min(workStart.size(), workEnd.size()); i++) {
+            if (workStart.get(i).isBlank() || workEnd.get(i).isBlank()) continue;
+
+            LocalTime start;
+            LocalTime end;
+            try {
+                start = LocalTime.parse(workStart.get(i));
+                end = LocalTime.parse(workEnd.get(i));
+            } catch (DateTimeParseException e) {
+                continue;
+            }
+            if (!end.isAfter(start) && !end.equals(LocalTime.MIDNIGHT)) continue;
+
+            String day = windowDay != null && i < windowDay.size() ? windowDay.get(i) : "";
+            DayOfWeek dayOfWeek = null;
+            if (!day.isBlank()) {
+                try {
+                    dayOfWeek = DayOfWeek.valueOf(day);
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+            }
+            profile.addWorkingWindow(new WorkingWindow(dayOfWeek, start, end));
+        }
+        if (profile.getWorkingWindows().isEmpty()) {
+            profile.addWorkingWindow(new WorkingWindow(LocalTime.of(9, 0), LocalTime.of(17, 0)));
+        }
 
         userProfileRepository.save(profile);
+        profileCache.invalidate("default");
+        dataVersion.bump();
         return "redirect:/profile";
     }
 
     @PostMapping("/profile/import")
     public String handleFileUpload(@RequestParam("file") MultipartFile file) {
-        System.err.println("!!!!!! FILE UPLOAD ENDPOINT HIT !!!!!");
-
-        System.out.println("========================================");
-        System.out.println("DEBUG: handleFileUpload TRIGGERED!!!");
-        System.out.println("DEBUG: File name: " + file.getOriginalFilename());
-        System.out.println("DEBUG: File size: " + file.getSize() + " bytes");
-        System.out.println("DEBUG: Content type: " + file.getContentType());
-        System.out.println("DEBUG: Is empty? " + file.isEmpty());
-        System.out.println("========================================");
+        if (log.isDebugEnabled()) {
+            log.debug("ICS upload: name={}, size={} bytes, contentType={}",
+                    file.getOriginalFilename(), file.getSize(), file.getContentType());
+        }
 
         if (file.isEmpty()) {
-            System.out.println("ERROR: File is empty!");
+            log.warn("ICS upload rejected: file is empty");
             return "redirect:/profile?error=empty";
         }
 
-        try {
-            System.out.println("DEBUG: About to parse ICS file...");
-            List<CalendarEvent> importedEvents = icsParser.parseICSStream(file.getInputStream());
-            System.out.println("DEBUG: Parser returned " + importedEvents.size() + " events");
-
-            if (importedEvents.isEmpty()) {
-                System.out.println("WARNING: Parser found 0 events in the file!");
+        IcsImportEvent jfr = new IcsImportEvent();
+        jfr.begin();
+        try (InputStream input = file.getInputStream()) {
+            // one transaction; events are parsed one at a time and only those that differ from the stored
+            // ones are written, so neither the file nor the whole calendar is ever held in memory and
+            // re-importing an unchanged calendar writes nothing; recurring events are stored as rules
+            // and only expanded for the days a schedule covers
+            CalendarImporter.ImportReport report = calendarImporter.synchronize(
+                    (events, series) -> icsParser.streamICS(input, events, series));
+            CalendarImporter.Diff events = report.events();
+            CalendarImporter.Diff series = report.series();
+            metrics.record(SchedulerMetrics.Phase.ICS_PARSE, report.readNanos());
+            metrics.record(SchedulerMetrics.Phase.ICS_PERSIST, report.diffNanos() + report.writeNanos());
+            jfr.parseNanos = report.readNanos();
+            jfr.persistNanos = report.diffNanos() + report.writeNanos();
+            jfr.eventCount = events.imported();
+            jfr.writeCount = events.writes() + series.writes();
+
+            if (events.imported() + series.imported() == 0) {
+                log.warn("ICS upload {} contained no timed events", file.getOriginalFilename());
                 return "redirect:/profile?error=noevents";
             }
 
-            System.out.println("DEBUG: Deleting existing calendar events...");
-            calendarEventRepository.deleteAll();
-
-            System.out.println("DEBUG: Saving " + importedEvents.size() + " new events...");
-            for (int i = 0; i < importedEvents.size(); i++) {
-                CalendarEvent event = importedEvents.get(i);
-                System.out.println("DEBUG: Saving event " + (i+1) + ": " +
-                        event.getTitle() +
-                        " on " + event.getDate() +
-                        " from " + event.getStartTime() +
-                        " to " + event.getEndTime());
-                calendarEventRepository.save(event);
+            metrics.eventsImported(events.inserted() + events.updated());
+            log.info("Imported {} calendar events and {} recurring series from {} in {} ms ({} events/s): "
+                            + "events {}, series {}", events.imported(), series.imported(),
+                    file.getOriginalFilename(), report.totalMillis(), report.eventsPerSecond(), events, series);
+
+            // a calendar that did not change leaves cached schedules valid
+            if (events.writes() + series.writes() > 0) {
+                dataVersion.bumpCalendar();
             }
 
-            System.out.println("DEBUG: All events saved successfully!");
+            return "redirect:/profile?success=imported&events=" + events.imported()
+                    + "&series=" + series.imported()
+                    + "&inserted=" + (events.inserted() + series.inserted())
+                    + "&updated=" + (events.updated() + series.updated())
+                    + "&deleted=" + (events.deleted() + series.deleted())
+                    + "&perSecond=" + report.eventsPerSecond();
 
         } catch (Exception e) {
-            System.err.println("========================================");
-            System.err.println("CRITICAL ERROR DURING IMPORT:");
-            System.err.println("Error type: " + e.getClass().getName());
-            System.err.println("Error message: " + e.getMessage());
-            e.printStackTrace();
-            System.err.println("========================================");
+            log.error("ICS import of {} failed", file.getOriginalFilename(), e);
             return "redirect:/profile?error=exception";
+        } finally {
+            // failed and empty imports are recorded too, with whatever was measured before they stopped
+            if (jfr.shouldCommit()) {
+                jfr.bytes = file.getSize();
+                jfr.commit();
+            }
         }
-
-        return "redirect:/profile?success=imported";
     }
-}
\ No newline at end of file
+}
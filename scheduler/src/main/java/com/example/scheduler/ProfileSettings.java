@@ -0,0 +1,34 @@
+package com.example.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A user's scheduling settings, detached from the database: working windows, the hours they make up,
+ * slot length and productivity. Built from a profile by copying, so it can be shared between requests;
+ * it must not be modified.
+ */
+public record ProfileSettings(List<WorkingWindow> windows,
+                              WorkingHours hours,
+                              int blockMinutes,
+                              Productivity productivity) {
+
+    /** Settings of a user who has not saved a profile yet. */
+    public static final ProfileSettings DEFAULT = new ProfileSettings(
+            List.of(), WorkingHours.DEFAULT, Granularity.DEFAULT_MINUTES, new Productivity());
+
+    static ProfileSettings of(UserProfile profile) {
+        List<WorkingWindow> windows = new ArrayList<>(profile.getWorkingWindows().size());
+        for (WorkingWindow w : profile.getWorkingWindows()) {
+            windows.add(new WorkingWindow(w.getDayOfWeek(), w.getStartTime(), w.getEndTime()));
+        }
+
+        Productivity p = profile.getProductivity();
+        Productivity productivity = p != null
+                ? new Productivity(p.getMorning(), p.getAfternoon(), p.getEvening(), p.getNight())
+                : new Productivity();
+
+        return new ProfileSettings(List.copyOf(windows), profile.getWorkingHours(), profile.getBlockMinutes(),
+                productivity);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.scheduler;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A stored recurring event in a form that can be expanded: the first occurrence, its rule
+ * and the dates taken out of the series. A value, so the same series read twice is equal.
+ */
+record Recurrence(String title,
+                  LocalDate start,
+                  LocalTime startTime,
+                  LocalTime endTime,
+                  RecurrenceRule rule,
+                  Set<LocalDate> exceptions) {
+
+    /**
+     * @return the series, or null if its rule cannot be expanded
+     */
+    static Recurrence of(RecurringEvent event) {
+        if (event.getStartDate() == null || event.getStartTime() == null || event.getEndTime() == null) return null;
+
+        RecurrenceRule rule = RecurrenceRule.parse(event.getRrule(), event.getUntil());
+        if (rule == null) return null;
+
+        return new Recurrence(event.getTitle(), event.getStartDate(), event.getStartTime(), event.getEndTime(),
+                rule, Set.copyOf(event.getExceptionDates()));
+    }
+
+    /**
+     * The occurrences in [from, to) as fixed calendar events. They are not persisted.
+     */
+    List<CalendarEvent> occurrences(LocalDate from, LocalDate to) {
+        List<LocalDate> dates = rule.dates(start, startTime, from, to, exceptions::contains);
+        List<CalendarEvent> events = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            CalendarEvent event = new CalendarEvent(date, startTime, endTime, title);
+            event.setAsFixedEvent();
+            events.add(event);
+        }
+        return events;
+    }
+}
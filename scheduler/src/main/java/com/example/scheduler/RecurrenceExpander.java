@@ -0,0 +1,121 @@
+package com.example.scheduler;
+
+import com.example.scheduler.database.RecurringEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Occurrences of the stored recurring events within a date window, expanded on demand.
+ * Expansions are cached per (series, window) in a bounded LRU; the series is part of the key
+ * by value, so an edited or re-imported series misses instead of returning stale dates.
+ * The series themselves are read once per calendar version, i.e. again only after an import
+ * changed the stored calendar; task and profile writes leave them cached.
+ */
+@Component
+public class RecurrenceExpander {
+
+    record Key(Recurrence recurrence, LocalDate from, int days) {}
+
+    private record Snapshot(long version, List<Recurrence> recurrences) {}
+
+    @Autowired
+    private RecurringEventRepository recurringEventRepository;
+
+    @Autowired
+    private DataVersion dataVersion;
+
+    private final int maxEntries;
+    private final Map<Key, List<CalendarEvent>> expansions;
+    private volatile Snapshot snapshot;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public RecurrenceExpander(@Value("${scheduler.recurrence.cache-entries:1024}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.expansions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<CalendarEvent>> eldest) {
+                return size() > RecurrenceExpander.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * No recurring events, for the engine when it runs outside Spring (benchmarks, tests).
+     */
+    static RecurrenceExpander none() {
+        return new RecurrenceExpander(0);
+    }
+
+    /**
+     * Occurrences of every stored series in [from, from + days), unsorted.
+     * The events are shared with the cache and must not be modified.
+     */
+    public List<CalendarEvent> occurrences(LocalDate from, int days) {
+        if (days <= 0) return List.of();
+
+        List<Recurrence> recurrences = recurrences();
+        if (recurrences.isEmpty()) return List.of();
+
+        List<CalendarEvent> occurrences = new ArrayList<>();
+        for (Recurrence recurrence : recurrences) {
+            occurrences.addAll(expand(recurrence, from, days));
+        }
+        return occurrences;
+    }
+
+    List<CalendarEvent> expand(Recurrence recurrence, LocalDate from, int days) {
+        Key key = new Key(recurrence, from, days);
+        synchronized (expansions) {
+            List<CalendarEvent> cached = expansions.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+
+        misses.incrementAndGet();
+        List<CalendarEvent> expanded = List.copyOf(recurrence.occurrences(from, from.plusDays(days)));
+        synchronized (expansions) {
+            expansions.put(key, expanded);
+        }
+        return expanded;
+    }
+
+    // a write between reading the version and loading only makes the next call load again
+    private List<Recurrence> recurrences() {
+        if (recurringEventRepository == null) return List.of();
+
+        long version = dataVersion.calendar();
+        Snapshot current = snapshot;
+        if (current != null && current.version() == version) {
+            return current.recurrences();
+        }
+
+        List<Recurrence> recurrences = new ArrayList<>();
+        for (RecurringEvent event : recurringEventRepository.findAll()) {
+            Recurrence recurrence = Recurrence.of(event);
+            if (recurrence != null) recurrences.add(recurrence);
+        }
+        snapshot = new Snapshot(version, List.copyOf(recurrences));
+        return recurrences;
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+
+    public int getSize() {
+        synchronized (expansions) {
+            return expansions.size();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.scheduler;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A parsed RRULE (RFC 5545 section 3.3.10) for day-level recurrences: DAILY, WEEKLY, MONTHLY and
+ * YEARLY with INTERVAL, COUNT and UNTIL, plus BYDAY except for YEARLY and BYMONTHDAY for MONTHLY.
+ * Weeks start on Monday.
+ * Immutable with value equality, so it can be part of a cache key.
+ */
+record RecurrenceRule(Frequency frequency,
+                      int interval,
+                      int count,                 // 0: no limit
+                      LocalDateTime until,       // null: no end
+                      List<WeekdayNum> byDay,
+                      List<Integer> byMonthDay) {
+
+    enum Frequency { DAILY, WEEKLY, MONTHLY, YEARLY }
+
+    /**
+     * A BYDAY entry: a weekday, optionally the n-th (or n-th last, when negative) of the month.
+     */
+    record WeekdayNum(int ordinal, DayOfWeek day) {}
+
+    private static final Map<String, DayOfWeek> DAYS = Map.of(
+            "MO", DayOfWeek.MONDAY, "TU", DayOfWeek.TUESDAY, "WE", DayOfWeek.WEDNESDAY,
+            "TH", DayOfWeek.THURSDAY, "FR", DayOfWeek.FRIDAY, "SA", DayOfWeek.SATURDAY,
+            "SU", DayOfWeek.SUNDAY);
+
+    /**
+     * @param value the RRULE value, e.g. FREQ=WEEKLY;BYDAY=MO,WE;UNTIL=20261231
+     * @param until the UNTIL part already read as local time (it may carry a zone), or null
+     * @return the rule, or null if it uses anything not supported here (sub-daily frequencies,
+     *         BYSETPOS, BYMONTH, ...), so the caller can fall back to a single event
+     */
+    static RecurrenceRule parse(String value, LocalDateTime until) {
+        Frequency frequency = null;
+        int interval = 1;
+        int count = 0;
+        List<WeekdayNum> byDay = List.of();
+        List<Integer> byMonthDay = List.of();
+
+        try {
+            for (String part : value.trim().split(";")) {
+                int eq = part.indexOf('=');
+                if (eq < 0) return null;
+                String name = part.substring(0, eq).toUpperCase();
+                String val = part.substring(eq + 1).toUpperCase();
+
+                switch (name) {
+                    case "FREQ" -> frequency = switch (val) {
+                        case "DAILY" -> Frequency.DAILY;
+                        case "WEEKLY" -> Frequency.WEEKLY;
+                        case "MONTHLY" -> Frequency.MONTHLY;
+                        case "YEARLY" -> Frequency.YEARLY;
+                        default -> null;
+                    };
+                    case "INTERVAL" -> interval = Integer.parseInt(val);
+                    case "COUNT" -> count = Integer.parseInt(val);
+                    case "UNTIL", "WKST" -> { }  // UNTIL arrives converted; weeks always start on Monday
+                    case "BYDAY" -> byDay = parseByDay(val);
+                    case "BYMONTHDAY" -> byMonthDay = parseByMonthDay(val);
+                    default -> { return null; }
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        if (frequency == null || interval < 1 || count < 0 || byDay == null || byMonthDay == null) return null;
+        // ordinals only mean something within a month
+        if (frequency != Frequency.MONTHLY && byDay.stream().anyMatch(d -> d.ordinal() != 0)) return null;
+        if (frequency != Frequency.MONTHLY && !byMonthDay.isEmpty()) return null;
+        // a yearly rule repeats its start date; weekdays within the year are not expanded
+        if (frequency == Frequency.YEARLY && !byDay.isEmpty()) return null;
+
+        return new RecurrenceRule(frequency, interval, count, until, byDay, byMonthDay);
+    }
+
+    private static List<WeekdayNum> parseByDay(String value) {
+        List<WeekdayNum> days = new ArrayList<>();
+        for (String entry : value.split(",")) {
+            if (entry.length() < 2) return null;
+            DayOfWeek day = DAYS.get(entry.substring(entry.length() - 2));
+            if (day == null) return null;
+            String ordinal = entry.substring(0, entry.length() - 2);
+            days.add(new WeekdayNum(ordinal.isEmpty() ? 0 : Integer.parseInt(ordinal.replace("+", "")), day));
+        }
+        return List.copyOf(days);
+    }
+
+    private static List<Integer> parseByMonthDay(String value) {
+        List<Integer> days = new ArrayList<>();
+        for (String entry : value.split(",")) {
+            int day = Integer.parseInt(entry.replace("+", ""));
+            if (day == 0 || day < -31 || day > 31) return null;
+            days.add(day);
+        }
+        return List.copyOf(days);
+    }
+
+    /**
+     * Dates of the occurrences falling in [from, to), in order, for a series whose first
+     * occurrence is at start. Generation stops at the window end, so the cost follows the window
+     * rather than the life of the series. Without COUNT it also starts at the window, skipping
+     * whole periods before it; with COUNT every earlier occurrence has to be counted.
+     */
+    List<LocalDate> dates(LocalDate start, LocalTime startTime, LocalDate from, LocalDate to,
+                          Predicate<LocalDate> excluded) {
+        List<LocalDate> dates = new ArrayList<>();
+        if (!from.isBefore(to)) return dates;
+
+        LocalDate firstPeriod = periodStart(start);
+        long period = 0;
+        if (count == 0 && from.isAfter(start)) {
+            period = Math.max(0, unitsBetween(firstPeriod, periodStart(from)) / interval);
+        }
+
+        int seen = 0;
+        List<LocalDate> candidates = new ArrayList<>();
+        while (true) {
+            LocalDate periodStart = advance(firstPeriod, period * interval);
+            if (!periodStart.isBefore(to)) return dates;
+
+            candidates.clear();
+            candidatesIn(periodStart, start, candidates);
+            for (LocalDate date : candidates) {
+                if (date.isBefore(start)) continue;
+                if (!date.isBefore(to)) return dates;
+                if (until != null && date.atTime(startTime).isAfter(until)) return dates;
+
+                // COUNT counts occurrences before exceptions are taken out (RFC 5545 section 3.8.5.1)
+                seen++;
+                if (!date.isBefore(from) && !excluded.test(date)) dates.add(date);
+                if (count > 0 && seen >= count) return dates;
+            }
+            period++;
+        }
+    }
+
+    // the first day of the period (day, Monday-based week, month, year) containing the date
+    private LocalDate periodStart(LocalDate date) {
+        return switch (frequency) {
+            case DAILY -> date;
+            case WEEKLY -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTHLY -> date.withDayOfMonth(1);
+            case YEARLY -> date.withDayOfYear(1);
+        };
+    }
+
+    private long unitsBetween(LocalDate a, LocalDate b) {
+        return switch (frequency) {
+            case DAILY -> ChronoUnit.DAYS.between(a, b);
+            case WEEKLY -> ChronoUnit.WEEKS.between(a, b);
+            case MONTHLY -> ChronoUnit.MONTHS.between(a, b);
+            case YEARLY -> ChronoUnit.YEARS.between(a, b);
+        };
+    }
+
+    private LocalDate advance(LocalDate periodStart, long units) {
+        return switch (frequency) {
+            case DAILY -> periodStart.plusDays(units);
+            case WEEKLY -> periodStart.plusWeeks(units);
+            case MONTHLY -> periodStart.plusMonths(units);
+            case YEARLY -> periodStart.plusYears(units);
+        };
+    }
+
+    // candidate dates of one period in date order; dates a month does not have are left out
+    private void candidatesIn(LocalDate periodStart, LocalDate start, List<LocalDate> out) {
+        switch (frequency) {
+            case DAILY -> {
+                if (byDay.isEmpty() || matchesDay(periodStart)) out.add(periodStart);
+            }
+            case WEEKLY -> {
+                for (int i = 0; i < 7; i++) {
+                    LocalDate date = periodStart.plusDays(i);
+                    if (byDay.isEmpty() ? date.getDayOfWeek() == start.getDayOfWeek() : matchesDay(date)) {
+                        out.add(date);
+                    }
+                }
+            }
+            case MONTHLY -> {
+                YearMonth month = YearMonth.from(periodStart);
+                if (byDay.isEmpty() && byMonthDay.isEmpty()) {
+                    if (start.getDayOfMonth() <= month.lengthOfMonth()) out.add(month.atDay(start.getDayOfMonth()));
+                    return;
+                }
+                for (int d = 1; d <= month.lengthOfMonth(); d++) {
+                    LocalDate date = month.atDay(d);
+                    if ((byMonthDay.isEmpty() || matchesMonthDay(date, month))
+                            && (byDay.isEmpty() || matchesMonthlyDay(date, month))) {
+                        out.add(date);
+                    }
+                }
+            }
+            case YEARLY -> {
+                YearMonth month = YearMonth.of(periodStart.getYear(), start.getMonth());
+                if (start.getDayOfMonth() <= month.lengthOfMonth()) out.add(month.atDay(start.getDayOfMonth()));
+            }
+        }
+    }
+
+    private boolean matchesDay(LocalDate date) {
+        for (WeekdayNum entry : byDay) {
+            if (entry.day() == date.getDayOfWeek()) return true;
+        }
+        return false;
+    }
+
+    private boolean matchesMonthDay(LocalDate date, YearMonth month) {
+        int day = date.getDayOfMonth();
+        int fromEnd = day - month.lengthOfMonth() - 1;    // -1 on the last day
+        return byMonthDay.contains(day) || byMonthDay.contains(fromEnd);
+    }
+
+    private boolean matchesMonthlyDay(LocalDate date, YearMonth month) {
+        int nth = (date.getDayOfMonth() - 1) / 7 + 1;
+        int nthLast = -((month.lengthOfMonth() - date.getDayOfMonth()) / 7 + 1);
+        for (WeekdayNum entry : byDay) {
+            if (entry.day() != date.getDayOfWeek()) continue;
+            if (entry.ordinal() == 0 || entry.ordinal() == nth || entry.ordinal() == nthLast) return true;
+        }
+        return false;
+    }
+}
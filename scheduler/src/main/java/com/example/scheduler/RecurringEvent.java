@@ -0,0 +1,131 @@
+package com.example.scheduler;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An imported recurring event, stored once as its first occurrence and its RRULE.
+ * Occurrences are never written to the database; they are expanded for the dates a schedule covers.
+ */
+@Entity
+@Table(name = "recurring_events")
+public class RecurringEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    // UID of the VEVENT, which moved single occurrences (RECURRENCE-ID) refer to
+    private String uid;
+
+    private String title;
+
+    private LocalDate startDate;
+    private LocalTime startTime;
+    private LocalTime endTime;
+
+    @Column(length = 1024)
+    private String rrule;
+
+    // UNTIL of the rule in local time, null when the series does not end by date
+    private LocalDateTime until;
+
+    // EXDATEs and moved occurrences, as ISO dates separated by commas; a long-running series
+    // collects them without bound, so the column has no length limit
+    @Lob
+    private String exceptionDates = "";
+
+    // contentDigest() as of the last write, so a re-import can skip an unchanged series without loading it
+    @Column(length = 64)
+    private String contentDigest;
+
+    public RecurringEvent() {
+        // JPA requires default constructor
+    }
+
+    public RecurringEvent(String uid, String title, LocalDate startDate, LocalTime startTime, LocalTime endTime,
+                          String rrule, LocalDateTime until) {
+        this.uid = uid;
+        this.title = title;
+        this.startDate = startDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.rrule = rrule;
+        this.until = until;
+    }
+
+    public UUID getId() { return id; }
+
+    public String getUid() { return uid; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public LocalDate getStartDate() { return startDate; }
+
+    public LocalTime getStartTime() { return startTime; }
+
+    public LocalTime getEndTime() { return endTime; }
+
+    public String getRrule() { return rrule; }
+
+    public LocalDateTime getUntil() { return until; }
+
+    /**
+     * SHA-256 of everything an import can change, exceptions included.
+     */
+    public String contentDigest() {
+        return new ContentDigest()
+                .add(title)
+                .add(startDate)
+                .add(startTime)
+                .add(endTime)
+                .add(rrule)
+                .add(until)
+                .add(exceptionDates)
+                .hex();
+    }
+
+    /**
+     * Take over what an import can change from a newer revision of this series.
+     */
+    public void updateFrom(RecurringEvent revision) {
+        this.title = revision.title;
+        this.startDate = revision.startDate;
+        this.startTime = revision.startTime;
+        this.endTime = revision.endTime;
+        this.rrule = revision.rrule;
+        this.until = revision.until;
+        this.exceptionDates = revision.exceptionDates;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void storeContentDigest() {
+        this.contentDigest = contentDigest();
+    }
+
+    public List<LocalDate> getExceptionDates() {
+        List<LocalDate> dates = new ArrayList<>();
+        if (exceptionDates == null || exceptionDates.isEmpty()) return dates;
+        for (String date : exceptionDates.split(",")) {
+            dates.add(LocalDate.parse(date));
+        }
+        return dates;
+    }
+
+    public void addExceptionDate(LocalDate date) {
+        String iso = date.toString();
+        if (exceptionDates == null || exceptionDates.isEmpty()) {
+            exceptionDates = iso;
+        } else if (!getExceptionDates().contains(date)) {
+            exceptionDates = exceptionDates + "," + iso;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.scheduler;
+
+import java.util.Arrays;
+
+/**
+ * Run-length encoded availability of one working day.
+ *
+ * Only the runs of slots not blocked by calendar events are stored, so memory grows with the
+ * number of busy/free transitions rather than with the day's length times its resolution.
+ * Breaks are not stored at all: within each run the work/break rhythm restarts, so which slots
+ * are breaks follows arithmetically from the position in the run.
+ */
+final class RunLengthDay {
+
+    /**
+     * Receives one stretch of consecutive open slots as a [start, end) minute-of-day range.
+     */
+    interface StretchConsumer {
+        void accept(int startMinute, int endMinute);
+    }
+
+    private static final int[] NONE = new int[0];
+
+    private final int blockMinutes;
+    private final int workSlots;
+    private final int cycle;            // work slots plus break slots
+    private final int[] runStart;       // minute of day each free run begins at
+    private final int[] runSlots;       // length of each free run in slots
+    private final int openCount;        // slots that can hold task work
+
+    private RunLengthDay(Granularity granularity, int[] runStart, int[] runSlots, int runs) {
+        this.blockMinutes = granularity.minutes();
+        this.workSlots = granularity.workSlots();
+        this.cycle = granularity.workSlots() + granularity.breakSlots();
+        this.runStart = runs == runStart.length ? runStart : Arrays.copyOf(runStart, runs);
+        this.runSlots = runs == runSlots.length ? runSlots : Arrays.copyOf(runSlots, runs);
+
+        int open = 0;
+        for (int i = 0; i < runs; i++) {
+            open += openIn(runSlots[i]);
+        }
+        this.openCount = open;
+    }
+
+    /**
+     * Encode a working day given its calendar events.
+     * @param spans packed start/end minute pairs of the events, as kept by EventIndex
+     */
+    static RunLengthDay build(int startMinute, int endMinute, int[] spans, Granularity granularity) {
+        return build(IntervalSet.of(startMinute, endMinute), IntervalSet.of(spans), granularity);
+    }
+
+    /**
+     * Encode a working day with any number of working windows.
+     * Slots are laid out from the start of each window, the last one running past the window's
+     * end if its length is not a whole number of slots; a slot is free unless busy time overlaps it.
+     * Free time is one interval subtraction, so the cost follows the number of windows and events.
+     */
+    static RunLengthDay build(IntervalSet windows, IntervalSet busy, Granularity granularity) {
+        int minutes = granularity.minutes();
+        IntervalSet grid = windows.padToMultipleOf(minutes);
+        IntervalSet free = grid.subtract(busy);
+
+        int[] runStart = new int[free.size()];
+        int[] runSlots = new int[free.size()];
+        int runs = 0;
+
+        int w = 0;
+        for (int i = 0; i < free.size(); i++) {
+            // free time lies inside exactly one window, whose start the slots are aligned to
+            while (grid.end(w) <= free.start(i)) w++;
+            int origin = grid.start(w);
+
+            int first = -Math.floorDiv(origin - free.start(i), minutes);
+            int last = Math.floorDiv(free.end(i) - origin, minutes);
+            if (last > first) {
+                runStart[runs] = origin + first * minutes;
+                runSlots[runs++] = last - first;
+            }
+        }
+
+        return runs == 0
+                ? new RunLengthDay(granularity, NONE, NONE, 0)
+                : new RunLengthDay(granularity, runStart, runSlots, runs);
+    }
+
+    int openCount() { return openCount; }
+
+    // open slots in a free run of the given length once breaks are taken out
+    private int openIn(int slots) {
+        return (slots / cycle) * workSlots + Math.min(slots % cycle, workSlots);
+    }
+
+    /**
+     * Open slots that end at or before the given minute of day.
+     */
+    int openBefore(int minute) {
+        int open = 0;
+        for (int r = 0; r < runStart.length && runStart[r] < minute; r++) {
+            int slots = Math.min(runSlots[r], (minute - runStart[r]) / blockMinutes);
+            open += openIn(slots);
+        }
+        return open;
+    }
+
+    /**
+     * Whether both minutes of day fall in the same free run, so only breaks lie between them.
+     */
+    boolean sameRun(int minuteA, int minuteB) {
+        int run = runAt(minuteA);
+        return run >= 0 && run == runAt(minuteB);
+    }
+
+    // free run covering the minute of day, -1 if it is busy or outside the working windows
+    private int runAt(int minute) {
+        int lo = 0;
+        int hi = runStart.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (runStart[mid] > minute) {
+                hi = mid - 1;
+            } else if (runStart[mid] + runSlots[mid] * blockMinutes <= minute) {
+                lo = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Report the open positions [from, to) of this day as stretches of consecutive slots.
+     * Positions count open slots only, in time order; breaks and busy time split stretches.
+     */
+    void forEachStretch(int from, int to, StretchConsumer consumer) {
+        int base = 0;   // open position at which the current run begins
+        for (int r = 0; r < runStart.length && base < to; r++) {
+            int open = openIn(runSlots[r]);
+            int a = Math.max(from, base) - base;
+            int b = Math.min(to, base + open) - base;
+
+            // within a run, a stretch ends at every break
+            while (a < b) {
+                int pieceEnd = Math.min(b, (a / workSlots + 1) * workSlots);
+                int slot = (a / workSlots) * cycle + a % workSlots;
+
+                int start = runStart[r] + slot * blockMinutes;
+                consumer.accept(start, start + (pieceEnd - a) * blockMinutes);
+                a = pieceEnd;
+            }
+            base += open;
+        }
+    }
+}
@@ -26,7 +26,7 @@ public class Schedule {
 
     /**
      * Generate complete schedule for display on the schedule page
-     * For MVP: uses hardcoded work hours (can be parameterized later)
+     * Tasks are fetched and ranked once; remaining work carries over from one day to the next
      */
     public List<CalendarEvent> generateWeeklySchedule(
             LocalDate startDate,
@@ -35,27 +35,17 @@ public class Schedule {
             LocalTime workEnd,
             List<CalendarEvent> blockedEvents) {
 
-        List<CalendarEvent> allEntries = new ArrayList<>();
-
         // Get prioritized tasks from TaskManager
         List<Task> prioritizedTasks = taskManager.getIncompleteTasks();
 
-        // Generate schedule for each day
-        for (int i = 0; i < days; i++) {
-            LocalDate currentDate = startDate.plusDays(i);
-
-            List<CalendarEvent> dailyEntries = scheduleLogic.buildDailySchedule(
-                    currentDate,
-                    workStart,
-                    workEnd,
-                    prioritizedTasks,
-                    blockedEvents
-            );
-
-            allEntries.addAll(dailyEntries);
-        }
-
-        return allEntries;
+        return scheduleLogic.buildMultiDaySchedule(
+                startDate,
+                days,
+                workStart,
+                workEnd,
+                prioritizedTasks,
+                blockedEvents
+        );
     }
 
     /**
@@ -0,0 +1,69 @@
+package com.example.scheduler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Flight recorder event for one schedule computed by ScheduleLogic.
+ * Fields are only filled in when a recording has the event enabled.
+ */
+@Name("com.example.scheduler.ScheduleBuild")
+@Label("Schedule Build")
+@Category("Scheduler")
+@Description("A schedule computed from tasks and calendar events")
+@StackTrace(false)
+class ScheduleBuildEvent extends Event {
+
+    @Label("User")
+    String user;
+
+    @Label("Mode")
+    String mode;
+
+    @Label("Start Date")
+    String startDate;
+
+    @Label("Horizon Days")
+    int horizonDays;
+
+    @Label("Tasks")
+    int taskCount;
+
+    @Label("Calendar Events")
+    int eventCount;
+
+    @Label("Entries")
+    int entryCount;
+
+    static ScheduleBuildEvent started() {
+        ScheduleBuildEvent event = new ScheduleBuildEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commit the build if it is being recorded, and hand back its entries.
+     */
+    List<CalendarEvent> finish(String user, PlacementMode mode, LocalDate startDate, int days,
+                               int tasks, int events, List<CalendarEvent> entries) {
+        end();
+        if (shouldCommit()) {
+            this.user = user;
+            this.mode = mode.name();
+            this.startDate = startDate.toString();
+            this.horizonDays = days;
+            this.taskCount = tasks;
+            this.eventCount = events;
+            this.entryCount = entries.size();
+            commit();
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.scheduler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of computed schedules with a TTL.
+ * Entries are keyed by the data version, so a write makes older entries unreachable
+ * and they simply age out; nothing has to be invalidated explicitly.
+ */
+@Component
+public class ScheduleCache {
+
+    /**
+     * Everything a computed schedule depends on.
+     */
+    public record Key(String username,
+                      LocalDate startDate,
+                      int days,
+                      WorkingHours hours,
+                      int blockMinutes,
+                      PlacementMode mode,
+                      long dataVersion) {}
+
+    private static class Entry {
+        final List<CalendarEvent> entries;
+        final long expiresAt;
+
+        Entry(List<CalendarEvent> entries, long expiresAt) {
+            this.entries = entries;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ScheduleCache(@Value("${scheduler.cache.max-entries:64}") int maxEntries,
+                         @Value("${scheduler.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                boolean evict = size() > ScheduleCache.this.maxEntries;
+                if (evict) evictions.incrementAndGet();
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * Cached schedule for the key, computing and storing it on a miss.
+     * Returns a copy, so callers may add to or sort the list.
+     */
+    public List<CalendarEvent> get(Key key, Supplier<List<CalendarEvent>> loader) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && now - entry.expiresAt < 0) {
+                hits.incrementAndGet();
+                return new ArrayList<>(entry.entries);
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+            }
+        }
+
+        // compute outside the lock; two concurrent misses for one key both compute, which is harmless
+        misses.incrementAndGet();
+        List<CalendarEvent> computed = List.copyOf(loader.get());
+        synchronized (entries) {
+            entries.put(key, new Entry(computed, now + ttlNanos));
+        }
+        return new ArrayList<>(computed);
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+}
@@ -1,297 +1,349 @@
 package com.example.scheduler;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
 import java.time.LocalTime;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Generates daily and weekly schedules based on tasks to complete and preexisting commitments.
  */
 @Service
 public class ScheduleLogic {
-    private static final int BLOCK_MINUTES = 15;
+    // below this many days the fork-join overhead outweighs building the grids in parallel
+    private static final int PARALLEL_MIN_DAYS = 14;
+    // the app keeps a single profile; schedules are always built for it
+    private static final String USER = "default";
 
     @Autowired
     private TaskManager taskManager;
 
-    class TimeBlock {
-        private LocalTime start;
-        private boolean blocked;      // calendar events
-        private boolean breakBlock;
-        private UUID taskId;          // null if free
-
-        public TimeBlock(LocalTime start) {
-            this.start = start;
-            this.blocked = false;
-            this.breakBlock = false;
-            this.taskId = null;
-        }
-
-        public LocalTime getStart() { return start; }
-        public boolean isBlocked() { return blocked; }
-        public void setBlocked(boolean blocked) { this.blocked = blocked; }
-
-        public boolean isBreakBlock() { return breakBlock; }
-        public void setBreakBlock(boolean breakBlock) { this.breakBlock = breakBlock; }
-
-        public UUID getTaskId() { return taskId; }
-        public void setTaskId(UUID taskId) { this.taskId = taskId; }
-    }
-
-    // generate the list of 15 min blocks of the day
-    private List<TimeBlock> generateDailyBlocks(
-            LocalTime workStart,
-            LocalTime workEnd
-    ) {
-        List<TimeBlock> blocks = new ArrayList<>();
-
-        LocalTime time = workStart;
-        while (time.isBefore(workEnd)) {
-            blocks.add(new TimeBlock(time));
-            time = time.plusMinutes(BLOCK_MINUTES);
-        }
-
-        return blocks;
-    }
-
-    private void applyCalendarEvents(
-            LocalDate date,
-            List<TimeBlock> blocks,
-            List<CalendarEvent> events
-    ) {
-        System.out.println("DEBUG: Applying calendar events for " + date);
-        System.out.println("DEBUG: Total events to check: " + events.size());
-
-        for (CalendarEvent event : events) {
-            System.out.println("DEBUG: Checking event: " + event.getTitle() +
-                    " on " + event.getDate() +
-                    " from " + event.getStartTime() +
-                    " to " + event.getEndTime());
-
-            if (!event.getDate().equals(date)) {
-                System.out.println("DEBUG: Event date doesn't match, skipping");
-                continue;
-            }
-
-            System.out.println("DEBUG: Event matches date! Blocking time blocks...");
-            int blockedCount = 0;
-
-            //event block
-            for (TimeBlock block : blocks) {
-                LocalTime blockStart = block.getStart();
-                LocalTime blockEnd = blockStart.plusMinutes(BLOCK_MINUTES);
-
-                boolean overlaps =
-                        blockStart.isBefore(event.getEndTime()) &&
-                                blockEnd.isAfter(event.getStartTime());
-
-                if (overlaps) {
-                    block.setBlocked(true);
-                    blockedCount++;
-                }
-            }
-            System.out.println("DEBUG: Blocked " + blockedCount + " time blocks for this event");
-        }
-    }
-
-    private void applyBreaks(List<TimeBlock> blocks) {
-        int count = 0;
-        for (TimeBlock block: blocks){
-            if(block.isBlocked()) {
-                count = 0;
-                continue;
-            }
-            count++;
-            if(count==4){
-                block.setBlocked(true);
-                block.setBreakBlock(true);
-                count=0;
-            }
-        }
-    }
-
-    private void placeTasks(List<TimeBlock> blocks, List<Task> tasks){
-        for (Task task : tasks) {
-
-            int remainingBlocks = task.getEstimatedMinutes() / BLOCK_MINUTES;
+    @Autowired
+    private IncrementalRescheduler rescheduler;
 
-            for (TimeBlock block : blocks) {
-                if (remainingBlocks == 0) break;
-                if (block.isBlocked()) continue;
-                if (block.getTaskId() != null) continue;
+    // replaced by the registry-backed bean under Spring; records nothing when created directly
+    @Autowired
+    private SchedulerMetrics metrics = SchedulerMetrics.none();
 
-                block.setTaskId(task.getId());
-                remainingBlocks--;
-            }
-            if (remainingBlocks > 0) {
-                System.out.println(
-                        "WARNING: Task \"" + task.getName() +
-                                "\" could not be fully scheduled (" +
-                                remainingBlocks * BLOCK_MINUTES + " minutes left)"
-                );
-            }
-        }
+    // replaced by the repository-backed bean under Spring; knows no recurring events when created directly
+    @Autowired
+    private RecurrenceExpander recurrences = RecurrenceExpander.none();
+
+    @Value("${scheduler.optimizer.budget-ms:20}")
+    private long optimizerBudgetMs;
+
+    // recurring events are expanded here, for exactly the days being scheduled
+    private EventIndex indexEvents(List<CalendarEvent> events, LocalDate startDate, int days) {
+        return metrics.time(SchedulerMetrics.Phase.EVENTS, () -> {
+            List<CalendarEvent> occurrences = recurrences.occurrences(startDate, days);
+            if (occurrences.isEmpty()) return EventIndex.of(events);
+
+            List<CalendarEvent> all = new ArrayList<>(events.size() + occurrences.size());
+            all.addAll(events);
+            all.addAll(occurrences);
+            return EventIndex.of(all);
+        });
     }
 
-    private List<CalendarEvent> buildScheduleEntries(
-            LocalDate date,
-            List<TimeBlock> blocks,
-            List<Task> prioritizedTasks
-    ) {
-        List<CalendarEvent> entries = new ArrayList<>();
-
-        TimeBlock currentStart = null;
-        UUID currentTaskId = null;
-
-        for (TimeBlock block : blocks) {
-
-            if (block.getTaskId() == null) {
-                if (currentStart != null) {
-                    entries.add(createEntry(
-                            date,
-                            currentStart.getStart(),
-                            block.getStart(),
-                            currentTaskId,
-                            prioritizedTasks
-                    ));
-                    currentStart = null;
-                    currentTaskId = null;
-                }
-                continue;
-            }
-
-            // New task or first task
-            if (currentTaskId == null || !block.getTaskId().equals(currentTaskId)) {
-
-                // Close previous entry
-                if (currentStart != null) {
-                    entries.add(createEntry(
-                            date,
-                            currentStart.getStart(),
-                            block.getStart(),
-                            currentTaskId,
-                            prioritizedTasks
-                    ));
-                }
-
-                currentStart = block;
-                currentTaskId = block.getTaskId();
+    // days are independent until tasks are placed, so long horizons encode them on the fork-join pool;
+    // each day's free time is its working windows minus its busy time
+    private RunLengthDay[] buildDays(LocalDate startDate,
+                                     int days,
+                                     WorkingHours hours,
+                                     EventIndex events,
+                                     Granularity granularity) {
+        return metrics.time(SchedulerMetrics.Phase.FREE_TIME, () -> {
+            RunLengthDay[] encoded = new RunLengthDay[days];
+
+            IntStream range = IntStream.range(0, days);
+            if (days >= PARALLEL_MIN_DAYS) {
+                range = range.parallel();
             }
-        }
+            range.forEach(i -> {
+                LocalDate date = startDate.plusDays(i);
+                encoded[i] = RunLengthDay.build(hours.on(date.getDayOfWeek()), events.busyOn(date), granularity);
+            });
 
-        // Close final entry
-        if (currentStart != null) {
-            TimeBlock lastBlock = blocks.get(blocks.size() - 1);
-            entries.add(createEntry(
-                    date,
-                    currentStart.getStart(),
-                    lastBlock.getStart().plusMinutes(BLOCK_MINUTES),
-                    currentTaskId,
-                    prioritizedTasks
-            ));
-        }
-
-        return entries;
+            return encoded;
+        });
     }
 
-    private CalendarEvent createEntry(
+    public List<CalendarEvent> buildDailySchedule(
             LocalDate date,
-            LocalTime start,
-            LocalTime end,
-            UUID taskId,
-            List<Task> tasks
+            LocalTime workStart,
+            LocalTime workEnd,
+            List<Task> prioritizedTasks,
+            List<CalendarEvent> events
     ) {
-        Task task = tasks.stream()
-                .filter(t -> t.getId().equals(taskId))
-                .findFirst()
-                .orElseThrow();
-
-        int minutes = (int) Duration.between(start, end).toMinutes();
-
-        return new CalendarEvent(
-                date,
-                start,
-                end,
-                task.getName(),
-                minutes
-        );
+        return buildDailySchedule(date, WorkingHours.of(workStart, workEnd), Granularity.DEFAULT_MINUTES,
+                prioritizedTasks, events);
     }
 
     public List<CalendarEvent> buildDailySchedule(
             LocalDate date,
-            LocalTime workStart,
-            LocalTime workEnd,
+            WorkingHours hours,
+            int blockMinutes,
             List<Task> prioritizedTasks,
             List<CalendarEvent> events
     ) {
-        List<TimeBlock> blocks = generateDailyBlocks(workStart, workEnd);
-        applyCalendarEvents(date, blocks, events);
-        applyBreaks(blocks);
+        return buildMultiDaySchedule(date, 1, hours, blockMinutes, prioritizedTasks, events);
+    }
 
-        List<Task> incompleteTasks = taskManager.getIncompleteTasks();
-        placeTasks(blocks, incompleteTasks);
+    public List<CalendarEvent> buildMultiDaySchedule(LocalDate startDate,
+                                                     int days,
+                                                     LocalTime workStart,
+                                                     LocalTime workEnd,
+                                                     List<Task> prioritizedTasks,
+                                                     List<CalendarEvent> blockedEvents) {
+        return buildMultiDaySchedule(startDate, days, WorkingHours.of(workStart, workEnd),
+                Granularity.DEFAULT_MINUTES, prioritizedTasks, blockedEvents);
+    }
 
-        return buildScheduleEntries(date, blocks, incompleteTasks);
+    /**
+     * Schedule over any number of days from already ranked tasks.
+     * Days are encoded in parallel as run-length availability, so memory follows the number of
+     * busy/free transitions rather than horizon times resolution; only the carry-over of remaining
+     * task minutes from one day into the next runs as a single sequential pass.
+     */
+    public List<CalendarEvent> buildMultiDaySchedule(LocalDate startDate,
+                                                     int days,
+                                                     WorkingHours hours,
+                                                     int blockMinutes,
+                                                     List<Task> prioritizedTasks,
+                                                     List<CalendarEvent> blockedEvents) {
+        if (days <= 0) return new ArrayList<>();
+        ScheduleBuildEvent jfr = ScheduleBuildEvent.started();
+
+        Granularity granularity = Granularity.of(blockMinutes);
+        EventIndex eventIndex = indexEvents(blockedEvents, startDate, days);
+        RunLengthDay[] encoded = buildDays(startDate, days, hours, eventIndex, granularity);
+
+        PlacementPlan plan = metrics.time(SchedulerMetrics.Phase.PLACEMENT, () -> new PlacementPlan(startDate,
+                hours, granularity, eventIndex.fingerprint(startDate, days), encoded, prioritizedTasks));
+        List<CalendarEvent> entries = metrics.time(SchedulerMetrics.Phase.ENTRIES, plan::entries);
+        return jfr.finish(USER, PlacementMode.PRIORITY, startDate, days,
+                prioritizedTasks.size(), blockedEvents.size(), entries);
     }
 
     public List<CalendarEvent> buildWeeklySchedule(LocalDate weekStart,
                                                    LocalTime workStart,
                                                    LocalTime workEnd,
                                                    List<CalendarEvent> blockedEvents) {
+        return buildWeeklySchedule(weekStart, WorkingHours.of(workStart, workEnd),
+                Granularity.DEFAULT_MINUTES, blockedEvents);
+    }
 
-        List<CalendarEvent> allEntries = new ArrayList<>();
-
-        // fetch prioritized tasks ONCE for the whole week
-        List<Task> tasks = taskManager.getIncompleteTasks();
+    public List<CalendarEvent> buildWeeklySchedule(LocalDate weekStart,
+                                                   WorkingHours hours,
+                                                   int blockMinutes,
+                                                   List<CalendarEvent> blockedEvents) {
+        return buildWeeklySchedule(weekStart, hours, blockMinutes, blockedEvents, PlacementTrace.OFF);
+    }
 
-        // track remaining work per task in 15-min blocks
-        java.util.Map<UUID, Integer> remainingBlocks = new java.util.LinkedHashMap<>();
-        for (Task t : tasks) {
-            remainingBlocks.put(t.getId(), Math.max(0, t.getEstimatedMinutes() / BLOCK_MINUTES));
+    /**
+     * Weekly schedule in priority order. When the trace is enabled the week is placed afresh,
+     * without reusing or replacing the rescheduler's placement, so every decision is recorded.
+     */
+    public List<CalendarEvent> buildWeeklySchedule(LocalDate weekStart,
+                                                   WorkingHours hours,
+                                                   int blockMinutes,
+                                                   List<CalendarEvent> blockedEvents,
+                                                   PlacementTrace trace) {
+        // not committed when the rescheduler's placement is reused, as nothing is built
+        ScheduleBuildEvent jfr = ScheduleBuildEvent.started();
+
+        // index events by date ONCE so each day only visits its own events
+        EventIndex eventIndex = indexEvents(blockedEvents, weekStart, 7);
+        long fingerprint = eventIndex.fingerprint(weekStart, 7);
+
+        // reuse the last placement if only tasks changed since; the rescheduler has repaired it
+        List<CalendarEvent> current = trace.enabled()
+                ? null
+                : rescheduler.currentEntries(weekStart, hours, blockMinutes, fingerprint);
+        if (current != null) {
+            return current;
         }
 
-        for (int i = 0; i < 7; i++) {
-            LocalDate date = weekStart.plusDays(i);
-
-            List<TimeBlock> blocks = generateDailyBlocks(workStart, workEnd);
-            applyCalendarEvents(date, blocks, blockedEvents);
-            applyBreaks(blocks);
+        long generation = rescheduler.generation();
+        Granularity granularity = Granularity.of(blockMinutes);
 
-            // place tasks using the remaining map (spill across days)
-            placeTasksWithRemaining(blocks, tasks, remainingBlocks);
+        // fetch prioritized tasks ONCE for the whole week
+        List<Task> tasks = taskManager.getIncompleteTasks();
+        RunLengthDay[] days = buildDays(weekStart, 7, hours, eventIndex, granularity);
 
-            allEntries.addAll(buildScheduleEntries(date, blocks, tasks));
+        // place tasks across the week in priority order (spill across days)
+        PlacementPlan plan = metrics.time(SchedulerMetrics.Phase.PLACEMENT,
+                () -> new PlacementPlan(weekStart, hours, granularity, fingerprint, days, tasks, trace));
+        if (!trace.enabled()) {
+            rescheduler.install(plan, generation);
         }
 
-        return allEntries;
+        List<CalendarEvent> entries = metrics.time(SchedulerMetrics.Phase.ENTRIES, plan::entries);
+        return jfr.finish(USER, PlacementMode.PRIORITY, weekStart, 7,
+                tasks.size(), blockedEvents.size(), entries);
+    }
+
+    /**
+     * Schedule over any number of days that puts the most complex tasks into the parts of the
+     * day with the highest productivity weight, instead of filling slots strictly in order.
+     */
+    public List<CalendarEvent> buildProductivitySchedule(LocalDate startDate,
+                                                         int days,
+                                                         WorkingHours hours,
+                                                         int blockMinutes,
+                                                         Productivity productivity,
+                                                         List<Task> prioritizedTasks,
+                                                         List<CalendarEvent> blockedEvents) {
+        if (days <= 0) return new ArrayList<>();
+        ScheduleBuildEvent jfr = ScheduleBuildEvent.started();
+
+        Granularity granularity = Granularity.of(blockMinutes);
+        RunLengthDay[] encoded = buildDays(startDate, days, hours,
+                indexEvents(blockedEvents, startDate, days), granularity);
+
+        OpenSlots slots = OpenSlots.of(startDate, encoded, granularity);
+        int[] taskAt = metrics.time(SchedulerMetrics.Phase.PLACEMENT, () -> ProductivityPlacer.place(slots,
+                prioritizedTasks, productivity != null ? productivity : new Productivity(), granularity));
+
+        List<CalendarEvent> entries = metrics.time(SchedulerMetrics.Phase.ENTRIES,
+                () -> slots.toEntries(taskAt, prioritizedTasks));
+        return jfr.finish(USER, PlacementMode.PRODUCTIVITY, startDate, days,
+                prioritizedTasks.size(), blockedEvents.size(), entries);
     }
 
+    /**
+     * Which tasks cannot be finished by their due date within the horizon.
+     * Works on per-day capacities only, so it is cheap to run before building a schedule.
+     */
+    public DeadlineReport checkDeadlines(LocalDate startDate,
+                                         int days,
+                                         WorkingHours hours,
+                                         int blockMinutes,
+                                         List<Task> prioritizedTasks,
+                                         List<CalendarEvent> blockedEvents) {
+        Granularity granularity = Granularity.of(blockMinutes);
+        RunLengthDay[] encoded = buildDays(startDate, Math.max(0, days), hours,
+                indexEvents(blockedEvents, startDate, days), granularity);
+
+        return DeadlinePlacer.check(startDate, encoded, granularity, prioritizedTasks);
+    }
 
-    private void placeTasksWithRemaining(List<TimeBlock> blocks,
-                                         List<Task> tasks,
-                                         java.util.Map<UUID, Integer> remainingBlocks) {
+    /**
+     * Schedule over any number of days in earliest-deadline-first order. Tasks that can meet their
+     * due date keep the capacity before it; tasks that cannot are placed after them.
+     */
+    public List<CalendarEvent> buildDeadlineSchedule(LocalDate startDate,
+                                                     int days,
+                                                     WorkingHours hours,
+                                                     int blockMinutes,
+                                                     List<Task> prioritizedTasks,
+                                                     List<CalendarEvent> blockedEvents) {
+        return buildDeadlineSchedule(startDate, days, hours, blockMinutes, prioritizedTasks, blockedEvents,
+                PlacementTrace.OFF);
+    }
 
-        for (Task task : tasks) {
-            int left = remainingBlocks.getOrDefault(task.getId(), 0);
-            if (left <= 0) continue;
+    public List<CalendarEvent> buildDeadlineSchedule(LocalDate startDate,
+                                                     int days,
+                                                     WorkingHours hours,
+                                                     int blockMinutes,
+                                                     List<Task> prioritizedTasks,
+                                                     List<CalendarEvent> blockedEvents,
+                                                     PlacementTrace trace) {
+        if (days <= 0) return new ArrayList<>();
+        ScheduleBuildEvent jfr = ScheduleBuildEvent.started();
+
+        Granularity granularity = Granularity.of(blockMinutes);
+        EventIndex eventIndex = indexEvents(blockedEvents, startDate, days);
+        RunLengthDay[] encoded = buildDays(startDate, days, hours, eventIndex, granularity);
+
+        PlacementPlan plan = metrics.time(SchedulerMetrics.Phase.PLACEMENT, () -> {
+            DeadlineReport report = DeadlinePlacer.check(startDate, encoded, granularity, prioritizedTasks);
+            return new PlacementPlan(startDate, hours, granularity,
+                    eventIndex.fingerprint(startDate, days), encoded, report.placementOrder(), trace);
+        });
+        List<CalendarEvent> entries = metrics.time(SchedulerMetrics.Phase.ENTRIES, plan::entries);
+        return jfr.finish(USER, PlacementMode.DEADLINE, startDate, days,
+                prioritizedTasks.size(), blockedEvents.size(), entries);
+    }
 
-            for (TimeBlock block : blocks) {
-                if (left == 0) break;
-                if (block.isBlocked()) continue;
-                if (block.getTaskId() != null) continue;
+    /**
+     * Schedule over any number of days that starts from the greedy placement (by priority or by
+     * deadline, whichever scores better) and improves it by local search for at most the optimizer
+     * budget. The greedy result is returned as is if nothing better is found in time.
+     */
+    public List<CalendarEvent> buildOptimizedSchedule(LocalDate startDate,
+                                                      int days,
+                                                      WorkingHours hours,
+                                                      int blockMinutes,
+                                                      Productivity productivity,
+                                                      List<Task> prioritizedTasks,
+                                                      List<CalendarEvent> blockedEvents) {
+        if (days <= 0) return new ArrayList<>();
+        ScheduleBuildEvent jfr = ScheduleBuildEvent.started();
+
+        long budget = TimeUnit.MILLISECONDS.toNanos(optimizerBudgetMs);
+        long begin = System.nanoTime();
+
+        Granularity granularity = Granularity.of(blockMinutes);
+        RunLengthDay[] encoded = buildDays(startDate, days, hours,
+                indexEvents(blockedEvents, startDate, days), granularity);
+        OpenSlots slots = OpenSlots.of(startDate, encoded, granularity);
+
+        int[] taskAt = metrics.time(SchedulerMetrics.Phase.PLACEMENT, () -> {
+            int[] byPriority = slots.fill(prioritizedTasks, prioritizedTasks, granularity);
+            int[] byDeadline = slots.fill(prioritizedTasks,
+                    DeadlinePlacer.check(startDate, encoded, granularity, prioritizedTasks).placementOrder(),
+                    granularity);
+
+            ScheduleOptimizer optimizer = new ScheduleOptimizer(slots, prioritizedTasks,
+                    productivity != null ? productivity : new Productivity());
+            int[] greedy = optimizer.cost(byDeadline) < optimizer.cost(byPriority) ? byDeadline : byPriority;
+
+            // setup counts against the budget too
+            return optimizer.improve(greedy, budget - (System.nanoTime() - begin));
+        });
+
+        List<CalendarEvent> entries = metrics.time(SchedulerMetrics.Phase.ENTRIES,
+                () -> slots.toEntries(taskAt, prioritizedTasks));
+        return jfr.finish(USER, PlacementMode.OPTIMIZED, startDate, days,
+                prioritizedTasks.size(), blockedEvents.size(), entries);
+    }
 
-                block.setTaskId(task.getId());
-                left--;
-            }
+    /**
+     * Schedule for [start, end) produced lazily, day by day, in date and time order.
+     * Nothing beyond the current day is computed until it is consumed, so a caller can page
+     * through a quarter or a year without holding every entry on the heap.
+     */
+    public Stream<CalendarEvent> streamSchedule(LocalDate start,
+                                                LocalDate end,
+                                                WorkingHours hours,
+                                                int blockMinutes,
+                                                List<Task> prioritizedTasks,
+                                                List<CalendarEvent> blockedEvents) {
+        ScheduleStream entries = new ScheduleStream(
+                start,
+                end,
+                hours,
+                Granularity.of(blockMinutes),
+                prioritizedTasks,
+                indexEvents(blockedEvents, start, (int) ChronoUnit.DAYS.between(start, end))
+        );
 
-            remainingBlocks.put(task.getId(), left);
-        }
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(entries,
+                        Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE),
+                false);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,161 @@
+package com.example.scheduler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Local search over a slot assignment, run on top of a greedy placement under a wall-clock budget.
+ *
+ * The objective is a sum of per-slot costs (priority work done late in the horizon, work done
+ * after the task's due date, complex work in unproductive parts of the day) plus a cost per
+ * context switch between consecutive slots. A move swaps two equally long segments of positions,
+ * either single slots or a task's whole run, so its effect on the objective can be computed from
+ * the touched slots and their neighbours alone. Only improving moves are kept, so the result is
+ * never worse than the starting assignment, which is what comes back when no move helps in time.
+ */
+final class ScheduleOptimizer {
+
+    // relative weights, in cost per hour of work
+    private static final double PRIORITY_WEIGHT = 1.0;      // per point of priority per hour of delay
+    private static final double LATENESS_WEIGHT = 100.0;    // per hour past the due date
+    private static final double PRODUCTIVITY_WEIGHT = 10.0; // per point of complexity times productivity
+    private static final double SWITCH_COST = 10.0;         // per change of task between consecutive slots
+
+    // fixed seed, so runs differ only in how many moves fit into the budget
+    private static final long SEED = 0x5EED;
+
+    private final OpenSlots slots;
+    private final double slotHours;
+    private final double[] hoursIn;         // per position: hours from the start of the horizon
+    private final long[] endMinute;         // per position: end, in minutes from the start of the horizon
+    private final double[] productivityAt;  // per position: productivity weight of its part of the day
+
+    private final double[] priority;        // per task
+    private final int[] complexity;
+    private final long[] dueMinute;         // per task: due date in minutes from the start, or Long.MAX_VALUE
+
+    ScheduleOptimizer(OpenSlots slots, List<Task> tasks, Productivity productivity) {
+        this.slots = slots;
+        this.slotHours = slots.blockMinutes() / 60.0;
+
+        int n = slots.size();
+        hoursIn = new double[n];
+        endMinute = new long[n];
+        productivityAt = new double[n];
+        for (int pos = 0; pos < n; pos++) {
+            long start = slots.dayOf(pos) * 1440L + slots.minuteOf(pos);
+            hoursIn[pos] = start / 60.0;
+            endMinute[pos] = start + slots.blockMinutes();
+            productivityAt[pos] = productivity.weight(Productivity.dayPart(slots.minuteOf(pos) / 60 % 24));
+        }
+
+        LocalDate startDate = slots.startDate();
+        LocalDateTime origin = startDate.atStartOfDay();
+        priority = new double[tasks.size()];
+        complexity = new int[tasks.size()];
+        dueMinute = new long[tasks.size()];
+        for (int t = 0; t < tasks.size(); t++) {
+            Task task = tasks.get(t);
+            priority[t] = task.computePriority(startDate);
+            complexity[t] = task.getComplexity();
+            dueMinute[t] = task.getDueDateTime() != null
+                    ? ChronoUnit.MINUTES.between(origin, task.getDueDateTime())
+                    : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Total objective of an assignment; lower is better.
+     */
+    double cost(int[] taskAt) {
+        double total = 0;
+        for (int pos = 0; pos < taskAt.length; pos++) {
+            total += slotCost(taskAt[pos], pos) + switchCost(taskAt, pos);
+        }
+        return total;
+    }
+
+    /**
+     * Improve the assignment until the budget runs out.
+     * @return a new assignment with the same slots per task and a cost no higher than start's
+     */
+    int[] improve(int[] start, long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        int[] taskAt = start.clone();
+        int n = taskAt.length;
+        if (n < 2) return taskAt;
+
+        Random random = new Random(SEED);
+        for (int iteration = 0; ; iteration++) {
+            if ((iteration & 255) == 0 && System.nanoTime() - deadline >= 0) break;
+
+            int a = random.nextInt(n);
+            int length = 1;
+            if (random.nextBoolean() && taskAt[a] != OpenSlots.FREE) {
+                // move the task's whole run rather than one slot of it
+                while (a > 0 && slots.adjacent(a - 1) && taskAt[a - 1] == taskAt[a]) a--;
+                while (a + length < n && slots.adjacent(a + length - 1) && taskAt[a + length] == taskAt[a]) length++;
+            }
+            if (length > n / 2) continue;
+
+            int b = random.nextInt(n - length + 1);
+            int lo = Math.min(a, b);
+            int hi = Math.max(a, b);
+            if (hi < lo + length) continue;
+
+            double before = local(taskAt, lo, hi, length);
+            swap(taskAt, lo, hi, length);
+            double after = local(taskAt, lo, hi, length);
+            if (after >= before) {
+                swap(taskAt, lo, hi, length);
+            }
+        }
+        return taskAt;
+    }
+
+    // cost of the slots in both segments and of every slot pair that touches them
+    private double local(int[] taskAt, int lo, int hi, int length) {
+        double total = 0;
+        for (int i = 0; i < length; i++) {
+            total += slotCost(taskAt[lo + i], lo + i) + slotCost(taskAt[hi + i], hi + i);
+        }
+        // pair i joins positions i and i + 1; when the segments touch, their shared pair counts once
+        for (int pos = Math.max(0, lo - 1); pos < lo + length; pos++) {
+            total += switchCost(taskAt, pos);
+        }
+        for (int pos = Math.max(hi - 1, lo + length); pos < hi + length; pos++) {
+            total += switchCost(taskAt, pos);
+        }
+        return total;
+    }
+
+    private double slotCost(int task, int pos) {
+        if (task == OpenSlots.FREE) return 0;
+
+        double cost = PRIORITY_WEIGHT * priority[task] * hoursIn[pos]
+                - PRODUCTIVITY_WEIGHT * complexity[task] * productivityAt[pos];
+        if (endMinute[pos] > dueMinute[task]) {
+            cost += LATENESS_WEIGHT * (endMinute[pos] - dueMinute[task]) / 60.0;
+        }
+        return cost * slotHours;
+    }
+
+    // cost of switching tasks between pos and pos + 1 on the same day
+    private double switchCost(int[] taskAt, int pos) {
+        if (pos + 1 >= taskAt.length || slots.dayOf(pos + 1) != slots.dayOf(pos)) return 0;
+        int t = taskAt[pos];
+        int u = taskAt[pos + 1];
+        return t != OpenSlots.FREE && u != OpenSlots.FREE && t != u ? SWITCH_COST : 0;
+    }
+
+    private static void swap(int[] taskAt, int lo, int hi, int length) {
+        for (int i = 0; i < length; i++) {
+            int t = taskAt[lo + i];
+            taskAt[lo + i] = taskAt[hi + i];
+            taskAt[hi + i] = t;
+        }
+    }
+}
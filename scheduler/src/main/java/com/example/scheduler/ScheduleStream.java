@@ -0,0 +1,90 @@
+package com.example.scheduler;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Produces schedule entries lazily, one day at a time, for horizons too long to materialize.
+ *
+ * Placement matches PlacementPlan: tasks fill open slots consecutively in priority order and
+ * spill into the following days. Only the current day's availability and entries are held,
+ * plus a cursor into the task list, so memory does not grow with the horizon.
+ */
+class ScheduleStream implements Iterator<CalendarEvent> {
+
+    private final List<Task> tasks;
+    private final EventIndex events;
+    private final WorkingHours hours;
+    private final Granularity granularity;
+    private final LocalDate end;
+
+    private LocalDate date;
+    private int task;               // first task with work left
+    private int taskRemaining;      // open slots task still needs
+    private final ArrayDeque<CalendarEvent> buffer = new ArrayDeque<>();
+
+    ScheduleStream(LocalDate start,
+                   LocalDate end,
+                   WorkingHours hours,
+                   Granularity granularity,
+                   List<Task> prioritizedTasks,
+                   EventIndex events) {
+        this.date = start;
+        this.end = end;
+        this.hours = hours;
+        this.granularity = granularity;
+        this.tasks = prioritizedTasks;
+        this.events = events;
+        this.task = -1;
+        nextTask();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (buffer.isEmpty() && date.isBefore(end) && task < tasks.size()) {
+            fillDay();
+            date = date.plusDays(1);
+        }
+        return !buffer.isEmpty();
+    }
+
+    @Override
+    public CalendarEvent next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return buffer.poll();
+    }
+
+    private void fillDay() {
+        RunLengthDay day = RunLengthDay.build(hours.on(date.getDayOfWeek()), events.busyOn(date), granularity);
+        LocalDate current = date;
+
+        int pos = 0;
+        while (pos < day.openCount() && task < tasks.size()) {
+            int take = Math.min(taskRemaining, day.openCount() - pos);
+            String title = tasks.get(task).getName();
+
+            day.forEachStretch(pos, pos + take, (startMinute, endMinute) -> buffer.add(new CalendarEvent(
+                    current,
+                    Granularity.toLocalTime(startMinute),
+                    Granularity.toLocalTime(endMinute),
+                    title,
+                    endMinute - startMinute
+            )));
+
+            pos += take;
+            taskRemaining -= take;
+            if (taskRemaining == 0) nextTask();
+        }
+    }
+
+    // advance to the next task that needs at least one slot
+    private void nextTask() {
+        do {
+            task++;
+            taskRemaining = task < tasks.size() ? granularity.slotsFor(tasks.get(task).getEstimatedMinutes()) : 0;
+        } while (task < tasks.size() && taskRemaining == 0);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.scheduler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out placement traces to schedule builds that asked for one, either per request or
+ * because the user is listed in scheduler.trace.users, and keeps each user's latest trace.
+ */
+@Component
+public class ScheduleTraces {
+
+    private final int capacity;
+    private final Set<String> tracedUsers;
+    private final Map<String, PlacementTrace> latest = new ConcurrentHashMap<>();
+
+    public ScheduleTraces(@Value("${scheduler.trace.capacity:4096}") int capacity,
+                          @Value("${scheduler.trace.users:}") List<String> tracedUsers) {
+        this.capacity = capacity;
+        this.tracedUsers = Set.copyOf(tracedUsers);
+    }
+
+    /**
+     * A fresh trace for this build if tracing is on for it, otherwise {@link PlacementTrace#OFF}.
+     */
+    public PlacementTrace start(String username, boolean requested) {
+        if (capacity <= 0 || !(requested || tracedUsers.contains(username))) {
+            return PlacementTrace.OFF;
+        }
+        return new PlacementTrace(capacity);
+    }
+
+    /**
+     * Publish a trace once the build that recorded it has returned, so readers never see it half filled.
+     * The OFF trace is ignored.
+     */
+    public void finish(String username, PlacementTrace trace) {
+        if (trace.enabled()) {
+            latest.put(username, trace);
+        }
+    }
+
+    /**
+     * The user's most recent trace, or null if none was recorded.
+     */
+    public PlacementTrace latest(String username) {
+        return latest.get(username);
+    }
+}
@@ -2,6 +2,9 @@ package com.example.scheduler;
 
 import java.util.Arrays;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -14,20 +17,28 @@ import org.springframework.context.annotation.Bean;
 @SpringBootApplication
 public class SchedulerApplication {
 
+	private static final Logger log = LoggerFactory.getLogger(SchedulerApplication.class);
+
 	public static void main(String[] args) {
 		SpringApplication.run(SchedulerApplication.class, args);
 	}
 
+	@Bean
+	public ApplicationRunner taskCountersSeeder(TaskManager taskManager) {
+		return args -> taskManager.seedCounters();
+	}
+
 	@Bean
 	public CommandLineRunner commandLineRunner(ApplicationContext ctx) {
 		return args -> {
+			if (!log.isDebugEnabled()) return;
 
-			System.out.println("Let's inspect the beans provided by Spring Boot:");
+			log.debug("Let's inspect the beans provided by Spring Boot:");
 
 			String[] beanNames = ctx.getBeanDefinitionNames();
 			Arrays.sort(beanNames);
 			for (String beanName : beanNames) {
-				System.out.println(beanName);
+				log.debug(beanName);
 			}
 
 		};
@@ -0,0 +1,79 @@
+package com.example.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers for each phase of building a schedule and of importing a calendar, published through
+ * Actuator under /actuator/metrics. Percentiles and histograms are set in application.properties.
+ */
+@Component
+public class SchedulerMetrics {
+
+    /**
+     * A timed step, with the timer it is recorded in and its phase tag.
+     */
+    public enum Phase {
+        /** indexing the calendar events by date */
+        EVENTS("scheduler.schedule", "events"),
+        /** working windows minus busy time, slotted with breaks, for every day */
+        FREE_TIME("scheduler.schedule", "free_time"),
+        /** assigning open slots to tasks */
+        PLACEMENT("scheduler.schedule", "placement"),
+        /** turning assigned slots into calendar entries */
+        ENTRIES("scheduler.schedule", "entries"),
+        /** reading an uploaded ICS file into events */
+        ICS_PARSE("scheduler.ics", "parse"),
+        /** replacing the stored events with the imported ones */
+        ICS_PERSIST("scheduler.ics", "persist");
+
+        private final String timer;
+        private final String tag;
+
+        Phase(String timer, String tag) {
+            this.timer = timer;
+            this.tag = tag;
+        }
+    }
+
+    private final Map<Phase, Timer> timers = new EnumMap<>(Phase.class);
+    private final Counter importedEvents;
+
+    public SchedulerMetrics(MeterRegistry registry) {
+        for (Phase phase : Phase.values()) {
+            timers.put(phase, Timer.builder(phase.timer)
+                    .tag("phase", phase.tag)
+                    .register(registry));
+        }
+        this.importedEvents = Counter.builder("scheduler.ics.events")
+                .description("Calendar events stored by ICS imports")
+                .register(registry);
+    }
+
+    /**
+     * Metrics that record nothing, for the engine when it runs outside Spring (benchmarks, tests).
+     */
+    static SchedulerMetrics none() {
+        return new SchedulerMetrics(new CompositeMeterRegistry());
+    }
+
+    public <T> T time(Phase phase, Supplier<T> step) {
+        return timers.get(phase).record(step);
+    }
+
+    public void record(Phase phase, long nanos) {
+        timers.get(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void eventsImported(int count) {
+        importedEvents.increment(count);
+    }
+}
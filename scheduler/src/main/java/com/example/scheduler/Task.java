@@ -11,7 +11,8 @@ import java.util.UUID;
  * Maps to the 'tasks' table in the database.
  */
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = @Index(name = "idx_tasks_done_due", columnList = "done, due_date_time"))
+@EntityListeners(DataVersionListener.class)
 public class Task {
 
     @Id
@@ -56,29 +57,13 @@ public class Task {
         this.done = false;
     }
 
+    /**
+     * Priority = (3*I) + 10/(D+1) + T + C, see PriorityWeights.
+     * Ranking many tasks at once is cheaper through TaskColumns and PriorityScorer.
+     */
     public double computePriority(LocalDate today) {
-        // I = Importance (1-5)
-        double I = this.importance;
-
-        // D = Days until due
-        double D;
-        if (this.dueDateTime != null) {
-            D = java.time.temporal.ChronoUnit.DAYS.between(today, this.dueDateTime.toLocalDate());
-            // If overdue, treat as 0 days (maximum urgency)
-            if (D < 0) D = 0;
-        } else {
-            // No due date = treat as far in future (low urgency)
-            D = 7;
-        }
-
-        // T = Estimated time in hours
-        double T = this.estimatedMinutes / 60.0;
-
-        // C = Complexity (1-5)
-        double C = this.complexity;
-
-        // Priority = (3*I) + 10/(D+1) + T + C
-        return (3 * I) + (10.0 / (D + 1)) + T + C;
+        return PriorityWeights.DEFAULT.score(importance, TaskColumns.daysToDue(dueDateTime, today),
+                estimatedMinutes, complexity);
     }
 
     public UUID getId() {
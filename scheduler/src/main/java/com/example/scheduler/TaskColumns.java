@@ -0,0 +1,63 @@
+package com.example.scheduler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * The inputs of the priority formula for many tasks, one primitive array per field.
+ * Filled once from entities (or any other source), then scored without touching objects.
+ */
+public final class TaskColumns {
+
+    /** Days until due assumed for tasks without a due date. */
+    public static final int UNDATED_DAYS = 7;
+
+    final int size;
+    final int[] importance;
+    final int[] daysToDue;
+    final int[] estimatedMinutes;
+    final int[] complexity;
+
+    public TaskColumns(int[] importance, int[] daysToDue, int[] estimatedMinutes, int[] complexity) {
+        int n = importance.length;
+        if (daysToDue.length != n || estimatedMinutes.length != n || complexity.length != n) {
+            throw new IllegalArgumentException("Task columns must all have the same length");
+        }
+        this.size = n;
+        this.importance = importance;
+        this.daysToDue = daysToDue;
+        this.estimatedMinutes = estimatedMinutes;
+        this.complexity = complexity;
+    }
+
+    public static TaskColumns of(List<Task> tasks, LocalDate today) {
+        int n = tasks.size();
+        int[] importance = new int[n];
+        int[] daysToDue = new int[n];
+        int[] estimatedMinutes = new int[n];
+        int[] complexity = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            Task task = tasks.get(i);
+            importance[i] = task.getImportance();
+            daysToDue[i] = daysToDue(task.getDueDateTime(), today);
+            estimatedMinutes[i] = task.getEstimatedMinutes();
+            complexity[i] = task.getComplexity();
+        }
+        return new TaskColumns(importance, daysToDue, estimatedMinutes, complexity);
+    }
+
+    /**
+     * Whole days from today until the due date; overdue counts as 0 (maximum urgency)
+     * and no due date as UNDATED_DAYS (low urgency).
+     */
+    public static int daysToDue(LocalDateTime dueDateTime, LocalDate today) {
+        if (dueDateTime == null) return UNDATED_DAYS;
+        long days = ChronoUnit.DAYS.between(today, dueDateTime.toLocalDate());
+        return (int) Math.max(0, Math.min(days, Integer.MAX_VALUE - 1));
+    }
+
+    public int size() { return size; }
+}
@@ -0,0 +1,37 @@
+package com.example.scheduler;
+
+import jakarta.persistence.*;
+
+/**
+ * Running task totals for one user, updated in the same transaction as every task write,
+ * so summaries read one row instead of counting the tasks table.
+ */
+@Entity
+@Table(name = "task_counters")
+public class TaskCounters {
+
+    @Id
+    private String username;
+
+    private long total;
+
+    private long completed;
+
+    public TaskCounters() {
+        // JPA requires default constructor
+    }
+
+    public TaskCounters(String username, long total, long completed) {
+        this.username = username;
+        this.total = total;
+        this.completed = completed;
+    }
+
+    public String getUsername() { return username; }
+
+    public long getTotal() { return total; }
+
+    public long getCompleted() { return completed; }
+
+    public long getIncomplete() { return total - completed; }
+}
@@ -1,8 +1,14 @@
 package com.example.scheduler;
 
+import com.example.scheduler.database.TaskCountersRepository;
 import com.example.scheduler.database.TaskRepository;
+import com.example.scheduler.database.TaskRow;
+import com.example.scheduler.database.TaskTag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -15,11 +21,28 @@ import java.util.stream.Collectors;
 @Service
 public class TaskManager {
 
+    private static final Logger log = LoggerFactory.getLogger(TaskManager.class);
+
+    // tasks are not per user yet; their counters are kept under the single profile's name
+    private static final String USER = "default";
+
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private IncrementalRescheduler rescheduler;
+
+    @Autowired
+    private TaskCountersRepository taskCountersRepository;
+
+    @Autowired
+    private DataVersion dataVersion;
+
+    private final PriorityIndex priorityIndex = new PriorityIndex();
+
     // ===== HTML Form Submission Handlers =====
 
+    @Transactional
     public Task createTaskFromForm(String name,
                                    String dueDateTimeStr,
                                    int importance,
@@ -32,7 +55,10 @@ public class TaskManager {
         }
 
         Task task = new Task(name, dueDateTime, importance, estimatedMinutes, complexity, tags);
-        return taskRepository.save(task);  // Save to database
+        Task saved = taskRepository.save(task);  // Save to database
+        adjustCounters(1, 0);
+        afterSave(saved);
+        return saved;
     }
 
     public boolean updateTaskFromForm(String taskIdStr,
@@ -60,14 +86,16 @@ public class TaskManager {
                 task.setTags(tags);
 
                 taskRepository.save(task);  // Save changes to database
+                afterSave(task);
                 return true;
             }
         } catch (IllegalArgumentException e) {
-            System.err.println("Invalid task ID: " + taskIdStr);
+            log.warn("Invalid task ID: {}", taskIdStr);
         }
         return false;
     }
 
+    @Transactional
     public boolean toggleTaskCompletion(String taskIdStr) {
         try {
             UUID taskId = UUID.fromString(taskIdStr);
@@ -77,55 +105,56 @@ public class TaskManager {
                 Task task = taskOpt.get();
                 task.setDone(!task.isDone());
                 taskRepository.save(task);  // Save to database
+                adjustCounters(0, task.isDone() ? 1 : -1);
+                afterSave(task);
                 return true;
             }
         } catch (IllegalArgumentException e) {
-            System.err.println("Invalid task ID: " + taskIdStr);
+            log.warn("Invalid task ID: {}", taskIdStr);
         }
         return false;
     }
 
+    @Transactional
     public boolean deleteTaskFromHTML(String taskIdStr) {
         try {
             UUID taskId = UUID.fromString(taskIdStr);
-            taskRepository.deleteById(taskId);  // Delete from database
+            taskRepository.findById(taskId).ifPresent(this::deleteTask);  // Delete from database
+            afterRemove(taskId);
             return true;
         } catch (IllegalArgumentException e) {
-            System.err.println("Invalid task ID: " + taskIdStr);
+            log.warn("Invalid task ID: {}", taskIdStr);
             return false;
         }
     }
 
     // ===== Data Retrieval for HTML Display =====
 
+    // Lists are read as display columns plus one tag query, so no Task entity or tag collection is loaded
+
     public List<TaskDisplayData> getTasksForDisplay() {
-        return taskRepository.findAll().stream()
-                .map(this::convertToDisplayData)
-                .collect(Collectors.toList());
+        return convertToDisplayData(taskRepository.findAllRows(), taskRepository.findAllTags());
     }
 
     public List<TaskDisplayData> getIncompleteTasksForDisplay() {
-        return taskRepository.findByDoneFalse().stream()
-                .map(this::convertToDisplayData)
-                .collect(Collectors.toList());
+        return convertToDisplayData(taskRepository.findRowsByDone(false), taskRepository.findTagsByDone(false));
     }
 
     public List<TaskDisplayData> getCompletedTasksForDisplay() {
-        return taskRepository.findByDoneTrue().stream()
-                .map(this::convertToDisplayData)
-                .collect(Collectors.toList());
+        return convertToDisplayData(taskRepository.findRowsByDone(true), taskRepository.findTagsByDone(true));
     }
 
     public java.util.Map<String, List<TaskDisplayData>> getTasksGroupedByTag() {
-        java.util.Map<String, List<TaskDisplayData>> grouped = new java.util.HashMap<>();
+        List<TaskTag> tags = taskRepository.findAllTags();
+        Map<UUID, TaskDisplayData> byId = new HashMap<>();
+        for (TaskDisplayData task : convertToDisplayData(taskRepository.findAllRows(), tags)) {
+            byId.put(UUID.fromString(task.getId()), task);
+        }
 
-        for (Task task : taskRepository.findAll()) {
-            if (task.getTags() != null) {
-                for (String tag : task.getTags()) {
-                    grouped.computeIfAbsent(tag, k -> new ArrayList<>())
-                            .add(convertToDisplayData(task));
-                }
-            }
+        java.util.Map<String, List<TaskDisplayData>> grouped = new java.util.HashMap<>();
+        for (TaskTag tag : tags) {
+            grouped.computeIfAbsent(tag.tag(), k -> new ArrayList<>())
+                    .add(byId.get(tag.taskId()));
         }
 
         return grouped;
@@ -137,23 +166,36 @@ public class TaskManager {
             Optional<Task> taskOpt = taskRepository.findById(taskId);
             return taskOpt.map(this::convertToDisplayData).orElse(null);
         } catch (IllegalArgumentException e) {
-            System.err.println("Invalid task ID: " + taskIdStr);
+            log.warn("Invalid task ID: {}", taskIdStr);
             return null;
         }
     }
 
+    /**
+     * Totals from the write-maintained counters row, plus an index range count of overdue tasks.
+     */
     public TaskSummary getTaskSummary() {
-        List<Task> allTasks = taskRepository.findAll();
-        int total = allTasks.size();
-        int incomplete = (int) allTasks.stream().filter(t -> !t.isDone()).count();
-        int completed = (int) allTasks.stream().filter(Task::isDone).count();
-        int overdue = (int) taskRepository.findByDoneFalseAndDueDateTimeBefore(LocalDateTime.now()).size();
+        TaskCounters counters = taskCountersRepository.findById(USER).orElseGet(this::countTasks);
+        int overdue = (int) taskRepository.countByDoneFalseAndDueDateTimeBefore(LocalDateTime.now());
+
+        return new TaskSummary((int) counters.getTotal(), (int) counters.getIncomplete(),
+                (int) counters.getCompleted(), overdue);
+    }
 
-        return new TaskSummary(total, incomplete, completed, overdue);
+    /**
+     * Create the counters row by counting the tasks once, if there is none yet (tasks that predate it).
+     * Called at startup, so concurrent task writes never race to create it.
+     */
+    @Transactional
+    public void seedCounters() {
+        if (!taskCountersRepository.existsById(USER)) {
+            taskCountersRepository.save(countTasks());
+        }
     }
 
     // ===== Core CRUD Operations =====
 
+    @Transactional
     public Task addTask(String name,
                         LocalDateTime dueDateTime,
                         int importance,
@@ -161,12 +203,18 @@ public class TaskManager {
                         int complexity,
                         Set<String> tags) {
         Task task = new Task(name, dueDateTime, importance, estimatedMinutes, complexity, tags);
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        adjustCounters(1, 0);
+        afterSave(saved);
+        return saved;
     }
 
+    @Transactional
     public void addTask(Task task) {
         if (task != null) {
-            taskRepository.save(task);
+            Task saved = taskRepository.save(task);
+            adjustCounters(1, saved.isDone() ? 1 : 0);
+            afterSave(saved);
         }
     }
 
@@ -180,25 +228,34 @@ public class TaskManager {
 
     /**
      * Get all incomplete tasks sorted by priority (highest to lowest)
-     * Uses EARLIEST_DUE as default tie-breaker for MVP
-     * MAINTAINED THE SAME AS BEFORE - just gets data from database
+     * Ties go to the earliest due date; served from the priority index, so nothing is sorted here
      */
     public List<Task> getIncompleteTasks() {
-        LocalDate today = LocalDate.now();
-        return taskRepository.findByDoneFalse().stream()  // Changed: get from DB instead of list
-                .sorted((t1, t2) -> {
-                    double p1 = t1.computePriority(today);
-                    double p2 = t2.computePriority(today);
-                    int comparison = Double.compare(p2, p1);
-
-                    if (comparison == 0) {
-                        if (t1.getDueDateTime() == null) return 1;
-                        if (t2.getDueDateTime() == null) return -1;
-                        return t1.getDueDateTime().compareTo(t2.getDueDateTime());
-                    }
-                    return comparison;
-                })
-                .collect(Collectors.toList());
+        return getTopTasks(Integer.MAX_VALUE);
+    }
+
+    /**
+     * The k highest priority incomplete tasks, in scheduling order. Costs O(k) once the index is loaded.
+     */
+    public List<Task> getTopTasks(int k) {
+        return priorityIndex.top(k, LocalDate.now(), dataVersion.tasks(), taskRepository::findByDoneFalse);
+    }
+
+    /**
+     * The incomplete tasks that can get any of the given number of slots, in scheduling order:
+     * everything down to the first task that takes their total past it.
+     */
+    public List<Task> getTasksFilling(int slots, int blockMinutes) {
+        return priorityIndex.filling(slots, Granularity.of(blockMinutes), LocalDate.now(), dataVersion.tasks(),
+                taskRepository::findByDoneFalse);
+    }
+
+    /**
+     * Scheduling order: highest priority first, ties broken by earliest due date (no due date last), then id.
+     * The priority index keeps the same order, so a task inserted with it lands where a reload would put it.
+     */
+    static Comparator<Task> priorityOrder(LocalDate today) {
+        return PriorityIndex.order(today);
     }
 
     public List<Task> getCompletedTasks() {
@@ -215,54 +272,90 @@ public class TaskManager {
 
     public List<Task> getTasksSortedByPriority() {
         LocalDate today = LocalDate.now();
-        List<Task> sortedTasks = new ArrayList<>(taskRepository.findAll());
-        sortedTasks.sort((t1, t2) -> {
-            double p1 = t1.computePriority(today);
-            double p2 = t2.computePriority(today);
-            return Double.compare(p2, p1);
-        });
+        List<Task> tasks = taskRepository.findAll();
+
+        PrioritySortEvent jfr = new PrioritySortEvent();
+        jfr.begin();
+
+        // compute each priority once instead of twice per comparison
+        Map<Task, Double> priorities = new IdentityHashMap<>(tasks.size() * 2);
+        for (Task task : tasks) {
+            priorities.put(task, task.computePriority(today));
+        }
+        List<Task> sortedTasks = new ArrayList<>(tasks);
+        sortedTasks.sort((t1, t2) -> Double.compare(priorities.get(t2), priorities.get(t1)));
+
+        jfr.end();
+        if (jfr.shouldCommit()) {
+            jfr.kind = "sort";
+            jfr.taskCount = tasks.size();
+            jfr.commit();
+        }
         return sortedTasks;
     }
 
+    @Transactional
     public boolean markTaskComplete(UUID taskId) {
         Optional<Task> taskOpt = taskRepository.findById(taskId);
         if (taskOpt.isPresent()) {
             Task task = taskOpt.get();
+            boolean wasDone = task.isDone();
             task.setDone(true);
             taskRepository.save(task);
+            if (!wasDone) adjustCounters(0, 1);
+            afterSave(task);
             return true;
         }
         return false;
     }
 
+    @Transactional
     public boolean markTaskIncomplete(UUID taskId) {
         Optional<Task> taskOpt = taskRepository.findById(taskId);
         if (taskOpt.isPresent()) {
             Task task = taskOpt.get();
+            boolean wasDone = task.isDone();
             task.setDone(false);
             taskRepository.save(task);
+            if (wasDone) adjustCounters(0, -1);
+            afterSave(task);
             return true;
         }
         return false;
     }
 
+    @Transactional
     public boolean removeTask(UUID taskId) {
-        if (taskRepository.existsById(taskId)) {
-            taskRepository.deleteById(taskId);
+        Optional<Task> taskOpt = taskRepository.findById(taskId);
+        if (taskOpt.isPresent()) {
+            deleteTask(taskOpt.get());
+            afterRemove(taskId);
             return true;
         }
         return false;
     }
 
+    @Transactional
     public int removeCompletedTasks() {
         List<Task> completedTasks = taskRepository.findByDoneTrue();
         int count = completedTasks.size();
         taskRepository.deleteAll(completedTasks);
+        adjustCounters(-count, -count);
+
+        // completed tasks are in neither the index nor the plan, but their deletes move the task version
+        List<UUID> ids = completedTasks.stream().map(Task::getId).toList();
+        AfterCommit.run(() -> priorityIndex.remove(ids, dataVersion.tasks()));
         return count;
     }
 
+    @Transactional
     public void clearAllTasks() {
         taskRepository.deleteAll();
+        taskCountersRepository.save(new TaskCounters(USER, 0, 0));
+        AfterCommit.run(() -> {
+            priorityIndex.clear();
+            rescheduler.invalidate();
+        });
     }
 
     public Set<String> getAllTags() {
@@ -274,6 +367,63 @@ public class TaskManager {
 
     // ===== Helper Methods =====
 
+    // every task write goes through these, so the priority index and the weekly plan follow the database;
+    // both take the write in once it has committed (and been counted in DataVersion), never one rolled back
+    private void afterSave(Task task) {
+        AfterCommit.run(() -> {
+            priorityIndex.put(task, dataVersion.tasks());
+            rescheduler.onTaskSaved(task);
+        });
+    }
+
+    private void deleteTask(Task task) {
+        taskRepository.delete(task);
+        adjustCounters(-1, task.isDone() ? -1 : 0);
+    }
+
+    // runs inside the caller's transaction, so the counters commit or roll back with the task write;
+    // the row exists from startup on (seedCounters), so writers only ever add to it
+    private void adjustCounters(long total, long completed) {
+        taskCountersRepository.adjust(USER, total, completed);
+    }
+
+    private TaskCounters countTasks() {
+        return new TaskCounters(USER, taskRepository.count(), taskRepository.countByDoneTrue());
+    }
+
+    private void afterRemove(UUID taskId) {
+        AfterCommit.run(() -> {
+            priorityIndex.remove(List.of(taskId), dataVersion.tasks());
+            rescheduler.onTaskRemoved(taskId);
+        });
+    }
+
+    private List<TaskDisplayData> convertToDisplayData(List<TaskRow> rows, List<TaskTag> tags) {
+        Map<UUID, List<String>> tagsById = new HashMap<>();
+        for (TaskTag tag : tags) {
+            tagsById.computeIfAbsent(tag.taskId(), k -> new ArrayList<>()).add(tag.tag());
+        }
+
+        LocalDate today = LocalDate.now();
+        List<TaskDisplayData> tasks = new ArrayList<>(rows.size());
+        for (TaskRow row : rows) {
+            tasks.add(new TaskDisplayData(
+                    row.id().toString(),
+                    row.name(),
+                    row.dueDateTime() != null ? row.dueDateTime().toString() : "",
+                    row.importance(),
+                    row.estimatedMinutes(),
+                    row.complexity(),
+                    String.join(", ", tagsById.getOrDefault(row.id(), List.of())),
+                    row.done(),
+                    // same score as Task.computePriority, from the columns alone
+                    PriorityWeights.DEFAULT.score(row.importance(), TaskColumns.daysToDue(row.dueDateTime(), today),
+                            row.estimatedMinutes(), row.complexity())
+            ));
+        }
+        return tasks;
+    }
+
     private TaskDisplayData convertToDisplayData(Task task) {
         return new TaskDisplayData(
                 task.getId().toString(),
@@ -24,6 +24,9 @@ public class UserProfile {
     @Embedded
     private Productivity productivity = new Productivity();
 
+    // length of a schedule slot in minutes; null on profiles saved before it existed
+    private Integer blockMinutes = Granularity.DEFAULT_MINUTES;
+
     public UserProfile() {}
 
     public UUID getId() { return id; }
@@ -50,6 +53,18 @@ public class UserProfile {
         this.workingWindows.add(w);
     }
 
+    public WorkingHours getWorkingHours() {
+        return WorkingHours.of(workingWindows);
+    }
+
+    public int getBlockMinutes() {
+        return blockMinutes != null ? blockMinutes : Granularity.DEFAULT_MINUTES;
+    }
+    public void setBlockMinutes(Integer blockMinutes) {
+        this.blockMinutes = (blockMinutes != null && Granularity.isSupported(blockMinutes))
+                ? blockMinutes : Granularity.DEFAULT_MINUTES;
+    }
+
     public Productivity getProductivity() { return productivity; }
     public void setProductivity(Productivity productivity) {
         this.productivity = (productivity != null) ? productivity : new Productivity();
@@ -0,0 +1,95 @@
+package com.example.scheduler;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The hours a user works on each day of the week, as one interval set per weekday.
+ *
+ * Built from the profile's working windows: a window without a weekday applies to every day,
+ * and a weekday that has windows of its own uses only those. Value equality, so it can be
+ * part of a cache key.
+ */
+public final class WorkingHours {
+
+    public static final WorkingHours DEFAULT = of(LocalTime.of(9, 0), LocalTime.of(17, 0));
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final IntervalSet[] byDay;  // indexed by DayOfWeek.ordinal()
+
+    private WorkingHours(IntervalSet[] byDay) {
+        this.byDay = byDay;
+    }
+
+    /**
+     * The same single window on every day.
+     */
+    public static WorkingHours of(LocalTime start, LocalTime end) {
+        IntervalSet[] byDay = new IntervalSet[7];
+        Arrays.fill(byDay, window(start, end));
+        return new WorkingHours(byDay);
+    }
+
+    /**
+     * Hours from a profile's windows; the default 9-5 if none of them is usable.
+     */
+    public static WorkingHours of(List<WorkingWindow> windows) {
+        IntervalSet everyDay = IntervalSet.EMPTY;
+        IntervalSet[] weekday = new IntervalSet[7];
+        boolean any = false;
+
+        for (WorkingWindow w : windows) {
+            IntervalSet window = window(w.getStartTime(), w.getEndTime());
+            if (window.isEmpty()) continue;
+            any = true;
+
+            if (w.getDayOfWeek() == null) {
+                everyDay = everyDay.union(window);
+            } else {
+                int d = w.getDayOfWeek().ordinal();
+                weekday[d] = weekday[d] == null ? window : weekday[d].union(window);
+            }
+        }
+        if (!any) return DEFAULT;
+
+        for (int d = 0; d < 7; d++) {
+            if (weekday[d] == null) weekday[d] = everyDay;
+        }
+        return new WorkingHours(weekday);
+    }
+
+    IntervalSet on(DayOfWeek day) {
+        return byDay[day.ordinal()];
+    }
+
+    // a window ending at midnight runs to the end of the day
+    private static IntervalSet window(LocalTime start, LocalTime end) {
+        if (start == null || end == null) return IntervalSet.EMPTY;
+        int from = start.toSecondOfDay() / 60;
+        int to = end.equals(LocalTime.MIDNIGHT) ? MINUTES_PER_DAY : end.toSecondOfDay() / 60;
+        return IntervalSet.of(from, to);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof WorkingHours other && Arrays.equals(byDay, other.byDay);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(byDay);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(day).append('=').append(on(day));
+        }
+        return sb.toString();
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.scheduler;
 
 import jakarta.persistence.*;
+import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.util.UUID;
 
@@ -21,6 +22,11 @@ public class WorkingWindow {
     @Column(name = "end_time")
     private LocalTime endTime;
 
+    // null means every day of the week
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week")
+    private DayOfWeek dayOfWeek;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_profile_id")
     private UserProfile userProfile;
@@ -32,6 +38,11 @@ public class WorkingWindow {
         this.endTime = endTime;
     }
 
+    public WorkingWindow(DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        this(startTime, endTime);
+        this.dayOfWeek = dayOfWeek;
+    }
+
     public UUID getId() { return id; }
 
     public LocalTime getStartTime() { return startTime; }
@@ -40,6 +51,9 @@ public class WorkingWindow {
     public LocalTime getEndTime() { return endTime; }
     public void setEndTime(LocalTime endTime) { this.endTime = endTime; }
 
+    public DayOfWeek getDayOfWeek() { return dayOfWeek; }
+    public void setDayOfWeek(DayOfWeek dayOfWeek) { this.dayOfWeek = dayOfWeek; }
+
     public UserProfile getUserProfile() { return userProfile; }
     public void setUserProfile(UserProfile userProfile) { this.userProfile = userProfile; }
 }
@@ -2,11 +2,22 @@ package com.example.scheduler.database;
 
 import com.example.scheduler.CalendarEvent; // Ensure this points to your Entity
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 @Repository
-public interface CalendarEventRepository extends JpaRepository<CalendarEvent, Long> {
+public interface CalendarEventRepository extends JpaRepository<CalendarEvent, UUID> {
     List<CalendarEvent> findByDate(LocalDate date);
+
+    // Events on the days [from, until), read through the (date, start time) index
+    @Query("select e from CalendarEvent e where e.date >= :from and e.date < :until order by e.date, e.startTime")
+    List<CalendarEvent> findInWindow(@Param("from") LocalDate from, @Param("until") LocalDate until);
+
+    // Keys and digests of every stored event, for diffing a re-import
+    @Query("select new com.example.scheduler.database.ImportKey(e.id, e.icsKey, e.contentDigest) from CalendarEvent e")
+    List<ImportKey> findAllImportKeys();
 }
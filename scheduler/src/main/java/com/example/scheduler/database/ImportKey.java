@@ -0,0 +1,10 @@
+package com.example.scheduler.database;
+
+import java.util.UUID;
+
+/**
+ * What a re-import needs of a stored event or series: its row, its key in the imported calendar
+ * and the SHA-256 digest of its content, read without loading the entity. Rows written before
+ * digests were kept have none.
+ */
+public record ImportKey(UUID id, String key, String contentDigest) {}
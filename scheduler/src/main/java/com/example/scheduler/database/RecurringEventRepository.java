@@ -0,0 +1,17 @@
+package com.example.scheduler.database;
+
+import com.example.scheduler.RecurringEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RecurringEventRepository extends JpaRepository<RecurringEvent, UUID> {
+
+    // Keys and digests of every stored series, for diffing a re-import
+    @Query("select new com.example.scheduler.database.ImportKey(r.id, r.uid, r.contentDigest) from RecurringEvent r")
+    List<ImportKey> findAllImportKeys();
+}
@@ -0,0 +1,20 @@
+package com.example.scheduler.database;
+
+import com.example.scheduler.TaskCounters;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskCountersRepository extends JpaRepository<TaskCounters, String> {
+
+    // Add to the counters in place, so concurrent writers never lose an update; returns rows changed
+    @Modifying
+    @Query("update TaskCounters c set c.total = c.total + :total, c.completed = c.completed + :completed "
+            + "where c.username = :username")
+    int adjust(@Param("username") String username,
+               @Param("total") long total,
+               @Param("completed") long completed);
+}
@@ -2,6 +2,8 @@ package com.example.scheduler.database;
 
 import com.example.scheduler.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -22,4 +24,31 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
 
     // Find overdue incomplete tasks
     List<Task> findByDoneFalseAndDueDateTimeBefore(LocalDateTime dateTime);
+
+    // Count overdue incomplete tasks; a range scan of the (done, due_date_time) index
+    long countByDoneFalseAndDueDateTimeBefore(LocalDateTime dateTime);
+
+    // Count completed tasks
+    long countByDoneTrue();
+
+    // Display columns of every task, without hydrating entities
+    @Query("select new com.example.scheduler.database.TaskRow("
+            + "t.id, t.name, t.dueDateTime, t.importance, t.estimatedMinutes, t.complexity, t.done) "
+            + "from Task t")
+    List<TaskRow> findAllRows();
+
+    // Display columns of the tasks that are (not) done
+    @Query("select new com.example.scheduler.database.TaskRow("
+            + "t.id, t.name, t.dueDateTime, t.importance, t.estimatedMinutes, t.complexity, t.done) "
+            + "from Task t where t.done = :done")
+    List<TaskRow> findRowsByDone(@Param("done") boolean done);
+
+    // Tags of every task in one query, instead of one lazy load per task
+    @Query("select new com.example.scheduler.database.TaskTag(t.id, tag) from Task t join t.tags tag order by tag")
+    List<TaskTag> findAllTags();
+
+    // Tags of the tasks that are (not) done
+    @Query("select new com.example.scheduler.database.TaskTag(t.id, tag) from Task t join t.tags tag "
+            + "where t.done = :done order by tag")
+    List<TaskTag> findTagsByDone(@Param("done") boolean done);
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.example.scheduler.database;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The columns of a task that lists and pages show, read without loading the entity or its tags.
+ */
+public record TaskRow(UUID id,
+                      String name,
+                      LocalDateTime dueDateTime,
+                      int importance,
+                      int estimatedMinutes,
+                      int complexity,
+                      boolean done) {}
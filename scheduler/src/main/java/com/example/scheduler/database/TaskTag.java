@@ -0,0 +1,8 @@
+package com.example.scheduler.database;
+
+import java.util.UUID;
+
+/**
+ * One tag of one task, as read from the task_tags table.
+ */
+public record TaskTag(UUID taskId, String tag) {}
@@ -1,6 +1,7 @@
 package com.example.scheduler.database;
 
 import com.example.scheduler.UserProfile;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,4 +11,8 @@ import java.util.UUID;
 @Repository
 public interface UserProfileRepository extends JpaRepository<UserProfile, UUID> {
     Optional<UserProfile> findByUsername(String username);
+
+    // The profile with its working windows in one query, for reads that use both
+    @EntityGraph(attributePaths = "workingWindows")
+    Optional<UserProfile> findWithWindowsByUsername(String username);
 }
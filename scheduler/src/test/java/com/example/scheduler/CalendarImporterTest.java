@@ -0,0 +1,235 @@
+package com.example.scheduler;
+
+import com.example.scheduler.database.CalendarEventRepository;
+import com.example.scheduler.database.ImportKey;
+import com.example.scheduler.database.RecurringEventRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that a re-import inserts, updates, keeps and deletes exactly the rows that differ,
+ * against an in-memory store standing in for the database.
+ */
+class CalendarImporterTest {
+
+    private final ICSParser parser = new ICSParser();
+
+    // rows by id, and each row's digest as of its last write, as the database would hold them
+    private final Map<UUID, Object> rows = new LinkedHashMap<>();
+    private final Map<UUID, String> digests = new LinkedHashMap<>();
+
+    private CalendarImporter importer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        importer = new CalendarImporter();
+        set(importer, "entityManager", fake(EntityManager.class, (method, args) -> {
+            switch (method) {
+                case "persist" -> {
+                    assignId(args[0]);
+                    rows.put(idOf(args[0]), args[0]);
+                    storeDigests();
+                }
+                case "find" -> {
+                    return rows.get(args[1]);
+                }
+                case "flush" -> storeDigests();
+                case "clear" -> { }
+                default -> throw new UnsupportedOperationException(method);
+            }
+            return null;
+        }));
+        set(importer, "calendarEventRepository", fake(CalendarEventRepository.class,
+                (method, args) -> repository(CalendarEvent.class, method, args)));
+        set(importer, "recurringEventRepository", fake(RecurringEventRepository.class,
+                (method, args) -> repository(RecurringEvent.class, method, args)));
+        set(importer, "batchSize", 2);
+    }
+
+    @Test
+    void insertsEverythingTheFirstTime() throws IOException {
+        CalendarImporter.ImportReport report = importICS(calendar(
+                event("a", "Design review", "0900"), event("b", "Lunch", "1200"), event(null, "No uid", "1500"),
+                series("standup", "Standup")));
+
+        assertEquals(new CalendarImporter.Diff(3, 0, 0, 0), report.events());
+        assertEquals(new CalendarImporter.Diff(1, 0, 0, 0), report.series());
+        assertEquals(4, rows.size());
+    }
+
+    @Test
+    void writesNothingForAnUnchangedCalendar() throws IOException {
+        String ics = calendar(event("a", "Design review", "0900"), event(null, "No uid", "1500"),
+                series("standup", "Standup"));
+        importICS(ics);
+
+        CalendarImporter.ImportReport report = importICS(ics);
+
+        assertEquals(new CalendarImporter.Diff(0, 0, 0, 2), report.events());
+        assertEquals(new CalendarImporter.Diff(0, 0, 0, 1), report.series());
+    }
+
+    @Test
+    void updatesChangedRowsInPlaceAndDeletesThoseThatAreGone() throws IOException {
+        importICS(calendar(event("a", "Design review", "0900"), event("b", "Lunch", "1200"),
+                event(null, "No uid", "1500"), series("standup", "Standup")));
+        UUID review = idOfTitle("Design review");
+
+        // a moved, b gone, c new; the event without a UID changed, so it is a different event
+        CalendarImporter.ImportReport report = importICS(calendar(
+                event("a", "Design review", "1000"), event("c", "Retro", "1600"), event(null, "No uid, edited", "1500"),
+                series("standup", "Daily standup")));
+
+        assertEquals(new CalendarImporter.Diff(2, 1, 2, 0), report.events());
+        assertEquals(new CalendarImporter.Diff(0, 1, 0, 0), report.series());
+        assertEquals(review, idOfTitle("Design review"));
+        assertEquals("10:00", ((CalendarEvent) rows.get(review)).getStartTime().toString());
+        assertEquals(List.of("Design review", "Daily standup", "Retro", "No uid, edited"), titles());
+    }
+
+    @Test
+    void writesNothingWhenAFileWithDuplicatesIsImportedAgain() throws IOException {
+        // two copies of an event without a UID, and two different events under one UID
+        String ics = calendar(event(null, "No uid", "1500"), event(null, "No uid", "1500"),
+                event("a", "Design review", "0900"), event("a", "Design review, again", "1100"),
+                series("standup", "Standup"), series("standup", "Standup"));
+        importICS(ics);
+        assertEquals(6, rows.size());
+
+        CalendarImporter.ImportReport report = importICS(ics);
+
+        assertEquals(0, report.events().writes());
+        assertEquals(0, report.series().writes());
+        assertEquals(4, report.events().unchanged());
+        assertEquals(6, rows.size());
+    }
+
+    @Test
+    void dropsOnlyTheCopiesAFileNoLongerRepeats() throws IOException {
+        importICS(calendar(event(null, "No uid", "1500"), event(null, "No uid", "1500"), event(null, "No uid", "1500")));
+
+        CalendarImporter.ImportReport report = importICS(calendar(event(null, "No uid", "1500")));
+
+        assertEquals(new CalendarImporter.Diff(0, 0, 2, 1), report.events());
+        assertEquals(List.of("No uid"), titles());
+    }
+
+    @Test
+    void anEmptyFileLeavesTheCalendarAsItWas() throws IOException {
+        importICS(calendar(event("a", "Design review", "0900"), series("standup", "Standup")));
+
+        CalendarImporter.ImportReport report = importICS(calendar());
+
+        assertEquals(new CalendarImporter.Diff(0, 0, 0, 0), report.events());
+        assertEquals(new CalendarImporter.Diff(0, 0, 0, 0), report.series());
+        assertEquals(List.of("Design review", "Standup"), titles());
+    }
+
+    private CalendarImporter.ImportReport importICS(String ics) throws IOException {
+        return importer.synchronize((events, series) -> parser.streamICS(
+                new ByteArrayInputStream(ics.getBytes(StandardCharsets.UTF_8)), events, series));
+    }
+
+    private static String calendar(String... events) {
+        return "BEGIN:VCALENDAR\r\n" + String.join("", events) + "END:VCALENDAR\r\n";
+    }
+
+    private static String event(String uid, String title, String start) {
+        return "BEGIN:VEVENT\r\n"
+                + (uid != null ? "UID:" + uid + "\r\n" : "")
+                + "DTSTART:20260105T" + start + "00\r\n"
+                + "DURATION:PT45M\r\n"
+                + "SUMMARY:" + title + "\r\n"
+                + "END:VEVENT\r\n";
+    }
+
+    private static String series(String uid, String title) {
+        return "BEGIN:VEVENT\r\nUID:" + uid + "\r\nDTSTART:20260105T091500\r\nDTEND:20260105T093000\r\n"
+                + "RRULE:FREQ=WEEKLY;BYDAY=MO,WE,FR\r\nSUMMARY:" + title + "\r\nEND:VEVENT\r\n";
+    }
+
+    private List<String> titles() {
+        List<String> titles = new ArrayList<>();
+        for (Object row : rows.values()) {
+            titles.add(row instanceof CalendarEvent event ? event.getTitle() : ((RecurringEvent) row).getTitle());
+        }
+        return titles;
+    }
+
+    private UUID idOfTitle(String title) {
+        for (Object row : rows.values()) {
+            if (row instanceof CalendarEvent event && event.getTitle().equals(title)) return event.getId();
+        }
+        return null;
+    }
+
+    // the digest @PrePersist and @PreUpdate would write
+    private void storeDigests() {
+        for (Map.Entry<UUID, Object> row : rows.entrySet()) {
+            digests.put(row.getKey(), row.getValue() instanceof CalendarEvent event
+                    ? event.contentDigest() : ((RecurringEvent) row.getValue()).contentDigest());
+        }
+    }
+
+    private Object repository(Class<?> type, String method, Object[] args) {
+        switch (method) {
+            case "findAllImportKeys" -> {
+                List<ImportKey> keys = new ArrayList<>();
+                for (Object row : rows.values()) {
+                    if (row instanceof CalendarEvent event && type == CalendarEvent.class) {
+                        keys.add(new ImportKey(event.getId(), event.getIcsKey(), digests.get(event.getId())));
+                    } else if (row instanceof RecurringEvent recurring && type == RecurringEvent.class) {
+                        keys.add(new ImportKey(recurring.getId(), recurring.getUid(), digests.get(recurring.getId())));
+                    }
+                }
+                return keys;
+            }
+            case "deleteAllByIdInBatch" -> {
+                for (Object id : (Iterable<?>) args[0]) {
+                    rows.remove(id);
+                    digests.remove(id);
+                }
+                return null;
+            }
+            default -> throw new UnsupportedOperationException(method);
+        }
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args) throws Exception;
+    }
+
+    private static <T> T fake(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> handler.handle(method.getName(), args)));
+    }
+
+    private static void set(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    // ids are normally assigned by the database
+    private static void assignId(Object entity) throws Exception {
+        set(entity, "id", UUID.randomUUID());
+    }
+
+    private static UUID idOf(Object entity) {
+        return entity instanceof CalendarEvent event ? event.getId() : ((RecurringEvent) entity).getId();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static com.example.scheduler.ScheduleFixtures.days;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the deadline feasibility check and the earliest-deadline-first order it produces.
+ */
+class DeadlinePlacerTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 5);
+    private static final Granularity GRANULARITY = Granularity.of(15);
+
+    @Test
+    void earliestDeadlineGoesFirstAndUndatedTasksLast() {
+        Task someday = task("someday", null, 60);
+        Task friday = task("friday", START.plusDays(4).atTime(17, 0), 60);
+        Task tomorrow = task("tomorrow", START.plusDays(1).atTime(12, 0), 60);
+
+        DeadlineReport report = DeadlinePlacer.check(START, days(5, 9, 17, GRANULARITY), GRANULARITY, List.of(someday, friday, tomorrow));
+
+        assertTrue(report.isFeasible());
+        assertEquals(List.of(tomorrow, friday, someday), report.placementOrder());
+    }
+
+    @Test
+    void reportsExactlyTheTaskThatCannotMakeItAndKeepsTheOthersOnTime() {
+        // 9:00-17:00 with 45/15 breaks leaves 6 hours of work a day, 3 of them by 13:00
+        Task draft = task("draft", START.atTime(12, 0), 120);
+        Task impossible = task("impossible", START.atTime(13, 0), 240);
+        Task review = task("review", START.atTime(16, 0), 120);
+
+        DeadlineReport report = DeadlinePlacer.check(START, days(1, 9, 17, GRANULARITY), GRANULARITY,
+                List.of(draft, impossible, review));
+
+        assertEquals(1, report.getLateTasks().size());
+        DeadlineReport.LateTask late = report.getLateTasks().get(0);
+        assertEquals("impossible", late.getName());
+        // two of the three open hours before 13:00 are already reserved for the draft
+        assertEquals(180, late.getMissingMinutes());
+        assertEquals(List.of(draft, review, impossible), report.placementOrder());
+    }
+
+    @Test
+    void overdueTasksAreLate() {
+        Task overdue = task("overdue", START.minusDays(1).atTime(9, 0), 30);
+
+        DeadlineReport report = DeadlinePlacer.check(START, days(3, 9, 17, GRANULARITY), GRANULARITY, List.of(overdue));
+
+        assertEquals(30, report.getLateTasks().get(0).getMissingMinutes());
+    }
+
+    private static Task task(String name, LocalDateTime due, int minutes) {
+        return new Task(name, due, 3, minutes, 3, Set.of());
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the streaming ICS reader on folded lines, time zones, durations and nested components,
+ * and that it hands events on as it reads them rather than after reading the file.
+ */
+class ICSParserTest {
+
+    private final ICSParser parser = new ICSParser();
+
+    @Test
+    void readsFoldedEscapedEventsOneAtATime() throws IOException {
+        String ics = String.join("\r\n",
+                "\uFEFFBEGIN:VCALENDAR",
+                "VERSION:2.0",
+                "BEGIN:VEVENT",
+                "DTSTART:20260105T090000",
+                "DTEND:20260105T103000",
+                "SUMMARY:Design review\\, round 2 with a title that is long enough to be fol",
+                " ded over two lines",
+                "BEGIN:VALARM",
+                "TRIGGER:-PT15M",
+                "SUMMARY:not the event title",
+                "END:VALARM",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20260106",
+                "SUMMARY:Holiday",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART:20260107T140000",
+                "DURATION:PT45M",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "SUMMARY:no start, skipped",
+                "END:VEVENT",
+                "END:VCALENDAR",
+                "");
+
+        List<CalendarEvent> events = stream(ics);
+
+        // the all-day holiday blocks no time, so it is skipped like the event without a start
+        assertEquals(2, events.size());
+        assertEvent(events.get(0), LocalDate.of(2026, 1, 5), "09:00", "10:30",
+                "Design review, round 2 with a title that is long enough to be folded over two lines");
+        assertEvent(events.get(1), LocalDate.of(2026, 1, 7), "14:00", "14:45", "Untitled Event");
+    }
+
+    @Test
+    void convertsUtcAndZonedTimesToTheSystemZone() throws IOException {
+        String ics = String.join("\r\n",
+                "BEGIN:VCALENDAR",
+                "BEGIN:VEVENT",
+                "DTSTART:20260105T170000Z",
+                "DTEND:20260105T180000Z",
+                "SUMMARY:utc",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART;TZID=\"Asia/Tokyo\":20260105T090000",
+                "DTEND;TZID=Asia/Tokyo:20260105T093000",
+                "SUMMARY:tokyo",
+                "END:VEVENT",
+                "END:VCALENDAR");
+
+        List<CalendarEvent> events = stream(ics);
+
+        LocalDateTime utc = local(LocalDateTime.of(2026, 1, 5, 17, 0), ZoneOffset.UTC);
+        assertEquals(utc.toLocalDate(), events.get(0).getDate());
+        assertEquals(utc.toLocalTime(), events.get(0).getStartTime());
+
+        LocalDateTime tokyo = local(LocalDateTime.of(2026, 1, 5, 9, 0), ZoneId.of("Asia/Tokyo"));
+        assertEquals(tokyo.toLocalTime(), events.get(1).getStartTime());
+        assertEquals(tokyo.toLocalTime().plusMinutes(30), events.get(1).getEndTime());
+    }
+
+    @Test
+    void passesRecurringEventsOnAsRulesWithTheirExceptions() throws IOException {
+        String ics = String.join("\r\n",
+                "BEGIN:VCALENDAR",
+                "BEGIN:VEVENT",
+                "UID:standup@example.com",
+                "DTSTART:20260105T091500",
+                "DTEND:20260105T093000",
+                "RRULE:FREQ=WEEKLY;BYDAY=MO,WE,FR;UNTIL=20260331",
+                "EXDATE:20260107T091500,20260109T091500",
+                "SUMMARY:Standup",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "UID:standup@example.com",
+                "RECURRENCE-ID:20260112T091500",
+                "DTSTART:20260112T110000",
+                "DTEND:20260112T111500",
+                "SUMMARY:Standup (moved)",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "UID:standup@example.com",
+                "RECURRENCE-ID:20260114T091500",
+                "STATUS:CANCELLED",
+                "DTSTART:20260114T091500",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "UID:hourly@example.com",
+                "DTSTART:20260105T080000",
+                "DTEND:20260105T081000",
+                "RRULE:FREQ=HOURLY",
+                "SUMMARY:not expandable, kept once",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "UID:birthday@example.com",
+                "DTSTART;VALUE=DATE:20260110",
+                "RRULE:FREQ=YEARLY",
+                "SUMMARY:all day, skipped",
+                "END:VEVENT",
+                "END:VCALENDAR");
+
+        List<CalendarEvent> events = new ArrayList<>();
+        List<RecurringEvent> series = new ArrayList<>();
+        int count = parser.streamICS(new ByteArrayInputStream(ics.getBytes(StandardCharsets.UTF_8)),
+                events::add, series::add);
+
+        assertEquals(3, count);
+        assertEquals(2, events.size());
+        assertEvent(events.get(0), LocalDate.of(2026, 1, 12), "11:00", "11:15", "Standup (moved)");
+        assertEvent(events.get(1), LocalDate.of(2026, 1, 5), "08:00", "08:10", "not expandable, kept once");
+        assertEquals("standup@example.com|20260112T091500", events.get(0).getIcsKey());
+        assertEquals("hourly@example.com", events.get(1).getIcsKey());
+
+        RecurringEvent standup = series.get(0);
+        assertEquals("standup@example.com", standup.getUid());
+        assertEquals(LocalDateTime.of(2026, 3, 31, 0, 0).with(LocalTime.MAX), standup.getUntil());
+        assertEquals(List.of(LocalDate.of(2026, 1, 7), LocalDate.of(2026, 1, 9),
+                LocalDate.of(2026, 1, 12), LocalDate.of(2026, 1, 14)), standup.getExceptionDates());
+
+        List<CalendarEvent> firstTwoWeeks = Recurrence.of(standup)
+                .occurrences(LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 19));
+        assertEquals(List.of(LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 16)),
+                firstTwoWeeks.stream().map(CalendarEvent::getDate).toList());
+    }
+
+    @Test
+    void handsEachEventOnBeforeReadingFarAhead() throws IOException {
+        int total = 5_000;
+        GeneratedCalendar calendar = new GeneratedCalendar(total);
+
+        // how many events the file had produced beyond those handed on, at most; only the
+        // readers' buffers may run ahead, so it stays far below the size of the file
+        int[] seen = {0};
+        int[] ahead = {0};
+        int count = parser.streamICS(calendar, event -> {
+            seen[0]++;
+            ahead[0] = Math.max(ahead[0], calendar.produced() - seen[0]);
+        });
+
+        assertEquals(total, count);
+        assertEquals(total, seen[0]);
+        assertTrue(ahead[0] < 1_000, "read " + ahead[0] + " events ahead");
+    }
+
+    private List<CalendarEvent> stream(String ics) throws IOException {
+        List<CalendarEvent> events = new ArrayList<>();
+        parser.streamICS(new ByteArrayInputStream(ics.getBytes(StandardCharsets.UTF_8)), events::add);
+        return events;
+    }
+
+    private static LocalDateTime local(LocalDateTime time, ZoneId zone) {
+        return time.atZone(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    private static void assertEvent(CalendarEvent event, LocalDate date, String start, String end, String title) {
+        assertEquals(date, event.getDate());
+        assertEquals(LocalTime.parse(start), event.getStartTime());
+        assertEquals(LocalTime.parse(end), event.getEndTime());
+        assertEquals(title, event.getTitle());
+    }
+
+    // a calendar produced while it is read, so the test never holds the whole file either
+    private static final class GeneratedCalendar extends InputStream {
+        private final int events;
+        private int written = -1;
+        private byte[] chunk = "BEGIN:VCALENDAR\r\nVERSION:2.0\r\n".getBytes(StandardCharsets.US_ASCII);
+        private int pos;
+
+        GeneratedCalendar(int events) {
+            this.events = events;
+        }
+
+        // events produced so far
+        int produced() {
+            return Math.max(0, Math.min(written, events));
+        }
+
+        @Override
+        public int read() {
+            if (pos == chunk.length && !refill()) return -1;
+            return chunk[pos++];
+        }
+
+        private boolean refill() {
+            written++;
+            if (written > events) return false;
+            String next = written == events
+                    ? "END:VCALENDAR\r\n"
+                    : "BEGIN:VEVENT\r\nUID:" + written + "\r\nDTSTART:20260105T090000\r\n"
+                    + "DTEND:20260105T100000\r\nSUMMARY:event " + written + "\r\nEND:VEVENT\r\n";
+            chunk = next.getBytes(StandardCharsets.US_ASCII);
+            pos = 0;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.example.scheduler.ScheduleFixtures.days;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that a placement repaired task by task is exactly the one a fresh build would give.
+ */
+class IncrementalReschedulerTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 3, 2);
+    private static final WorkingHours HOURS = WorkingHours.of(LocalTime.of(9, 0), LocalTime.of(17, 0));
+    private static final Granularity GRANULARITY = Granularity.of(15);
+    // a meeting every morning, so tasks split around it and spill from one day into the next
+    private static final int[] STANDUP = {10 * 60, 10 * 60 + 30};
+
+    @Test
+    void repairedPlanMatchesAFreshBuildAfterEveryKindOfWrite() throws Exception {
+        Random random = new Random(7);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            tasks.add(randomTask(random, i));
+        }
+
+        IncrementalRescheduler rescheduler = new IncrementalRescheduler();
+        rescheduler.install(build(tasks), rescheduler.generation());
+
+        for (int step = 0; step < 200; step++) {
+            Task task = tasks.get(random.nextInt(tasks.size()));
+            switch (step % 5) {
+                case 0 -> {
+                    Task added = randomTask(random, 100 + step);
+                    tasks.add(added);
+                    rescheduler.onTaskSaved(added);
+                }
+                case 1 -> {
+                    tasks.remove(task);
+                    rescheduler.onTaskRemoved(task.getId());
+                }
+                case 2 -> {
+                    task.setImportance(1 + random.nextInt(5));
+                    rescheduler.onTaskSaved(task);
+                }
+                case 3 -> {
+                    task.setDone(!task.isDone());
+                    rescheduler.onTaskSaved(task);
+                }
+                default -> {
+                    task.setEstimatedMinutes(15 * random.nextInt(16));
+                    rescheduler.onTaskSaved(task);
+                }
+            }
+
+            List<CalendarEvent> repaired = rescheduler.currentEntries(START, HOURS, GRANULARITY.minutes(), 0);
+            assertNotNull(repaired);
+            assertEquals(describe(build(tasks).entries()), describe(repaired), "after step " + step);
+        }
+    }
+
+    @Test
+    void aPlanBuiltBeforeAWriteIsNotInstalled() throws Exception {
+        List<Task> tasks = new ArrayList<>(List.of(withId(new Task("report", null, 3, 60, 3, Set.of()))));
+        IncrementalRescheduler rescheduler = new IncrementalRescheduler();
+
+        long generation = rescheduler.generation();
+        PlacementPlan stale = build(tasks);
+        rescheduler.onTaskSaved(withId(new Task("review", null, 5, 30, 3, Set.of())));
+        rescheduler.install(stale, generation);
+
+        assertNull(rescheduler.currentEntries(START, HOURS, GRANULARITY.minutes(), 0));
+    }
+
+    // the plan a page load would build from scratch: incomplete tasks in scheduling order
+    private static PlacementPlan build(List<Task> tasks) {
+        List<Task> incomplete = new ArrayList<>();
+        for (Task task : tasks) {
+            if (!task.isDone()) incomplete.add(task);
+        }
+        incomplete.sort(TaskManager.priorityOrder(START));
+        return new PlacementPlan(START, HOURS, GRANULARITY, 0, days(5, 9, 17, STANDUP, GRANULARITY), incomplete);
+    }
+
+    private static List<String> describe(List<CalendarEvent> entries) {
+        List<String> described = new ArrayList<>(entries.size());
+        for (CalendarEvent entry : entries) {
+            described.add(entry.getDate() + " " + entry.getStartTime() + "-" + entry.getEndTime()
+                    + " " + entry.getTitle());
+        }
+        return described;
+    }
+
+    private static Task randomTask(Random random, int i) throws Exception {
+        LocalDateTime due = random.nextInt(4) == 0 ? null : START.atStartOfDay().plusHours(random.nextInt(200));
+        return withId(new Task("task " + i, due, 1 + random.nextInt(5), 15 * random.nextInt(16),
+                1 + random.nextInt(5), Set.of()));
+    }
+
+    // ids are normally assigned by the database
+    private static Task withId(Task task) throws Exception {
+        Field id = Task.class.getDeclaredField("id");
+        id.setAccessible(true);
+        id.set(task, UUID.randomUUID());
+        return task;
+    }
+}
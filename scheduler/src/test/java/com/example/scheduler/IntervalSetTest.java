@@ -0,0 +1,66 @@
+package com.example.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the interval algebra behind free/busy computation and how working windows combine.
+ */
+class IntervalSetTest {
+
+    @Test
+    void normalizesUnsortedOverlappingAndEmptyIntervals() {
+        IntervalSet set = IntervalSet.of(new int[]{600, 660, 540, 600, 700, 700, 650, 720, 800, 790});
+
+        assertEquals(IntervalSet.of(540, 720), set);
+    }
+
+    @Test
+    void subtractsBusyTimeFromSplitShifts() {
+        IntervalSet windows = IntervalSet.of(new int[]{540, 720, 780, 1020});
+        IntervalSet busy = IntervalSet.of(new int[]{600, 630, 700, 800, 1000, 1100});
+
+        assertEquals(IntervalSet.of(new int[]{540, 600, 630, 700, 800, 1000}), windows.subtract(busy));
+    }
+
+    @Test
+    void unionAndIntersectionAreLinearMerges() {
+        IntervalSet a = IntervalSet.of(new int[]{0, 10, 20, 30});
+        IntervalSet b = IntervalSet.of(new int[]{5, 25, 40, 50});
+
+        assertEquals(IntervalSet.of(new int[]{0, 30, 40, 50}), a.union(b));
+        assertEquals(IntervalSet.of(new int[]{5, 10, 20, 25}), a.intersect(b));
+        assertEquals(20, a.intersect(b).totalLength() + a.subtract(b).totalLength());
+    }
+
+    @Test
+    void weekdayWindowsReplaceEveryDayWindows() {
+        WorkingHours hours = WorkingHours.of(List.of(
+                new WorkingWindow(LocalTime.of(9, 0), LocalTime.of(12, 0)),
+                new WorkingWindow(LocalTime.of(13, 0), LocalTime.of(17, 0)),
+                new WorkingWindow(DayOfWeek.FRIDAY, LocalTime.of(8, 0), LocalTime.of(12, 0))));
+
+        assertEquals(IntervalSet.of(new int[]{540, 720, 780, 1020}), hours.on(DayOfWeek.MONDAY));
+        assertEquals(IntervalSet.of(480, 720), hours.on(DayOfWeek.FRIDAY));
+        assertEquals(WorkingHours.DEFAULT, WorkingHours.of(List.of()));
+    }
+
+    @Test
+    void splitShiftDaysAlignSlotsToEachWindow() {
+        Granularity granularity = Granularity.of(30);
+        IntervalSet windows = IntervalSet.of(new int[]{540, 660, 790, 900});
+        RunLengthDay day = RunLengthDay.build(windows, IntervalSet.of(600, 615), granularity);
+
+        StringBuilder stretches = new StringBuilder();
+        day.forEachStretch(0, day.openCount(),
+                (start, end) -> stretches.append(start).append('-').append(end).append(' '));
+
+        // the afternoon window starts at 13:10, so its slots do too
+        assertEquals("540-600 630-660 790-880 ", stretches.toString());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks what a traced placement records and that the ring buffer keeps only the newest decisions.
+ */
+class PlacementTraceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    @Test
+    void explainsEachStretchOfATask() {
+        Granularity granularity = Granularity.of(15);
+        // 9-12 with a meeting 10:00-10:30; 45 minutes of work, then a 15 minute break
+        RunLengthDay[] days = {RunLengthDay.build(9 * 60, 12 * 60, new int[]{10 * 60, 10 * 60 + 30}, granularity)};
+        List<Task> tasks = List.of(task("first"), task("second"), task("third"));
+
+        PlacementTrace trace = new PlacementTrace(64);
+        new PlacementPlan(DAY, WorkingHours.of(LocalTime.of(9, 0), LocalTime.of(12, 0)), granularity, 0,
+                days, tasks, trace);
+
+        assertEquals(List.of(
+                placed("first", "09:00", "09:45", 15),
+                skipped("first", "09:45", "10:30", PlacementTrace.Reason.BUSY),
+                placed("first", "10:30", "10:45", 0),
+                new PlacementTrace.Record(PlacementTrace.Kind.SKIPPED, PlacementTrace.Reason.TAKEN, "second",
+                        DAY, LocalTime.of(9, 0), LocalTime.of(10, 45), 0, 4),
+                placed("second", "10:45", "11:15", 30),
+                skipped("second", "11:15", "11:30", PlacementTrace.Reason.BREAK),
+                placed("second", "11:30", "12:00", 0),
+                new PlacementTrace.Record(PlacementTrace.Kind.UNPLACED, PlacementTrace.Reason.NO_CAPACITY, "third",
+                        null, null, null, 60, 0)
+        ), trace.records());
+    }
+
+    @Test
+    void keepsTheNewestDecisionsWhenFull() {
+        PlacementTrace trace = new PlacementTrace(3);
+        trace.begin(DAY, List.of(task("a"), task("b"), task("c"), task("d"), task("e")));
+        for (int t = 0; t < 5; t++) {
+            trace.unplaced(t, 10 * t);
+        }
+
+        List<PlacementTrace.Record> records = trace.records();
+        assertEquals(5, trace.recorded());
+        assertEquals(2, trace.dropped());
+        assertEquals(List.of("c", "d", "e"), records.stream().map(PlacementTrace.Record::task).toList());
+        assertEquals(40, records.get(2).remainingMinutes());
+    }
+
+    @Test
+    void offRecordsNothing() {
+        assertTrue(!PlacementTrace.OFF.enabled());
+        assertEquals(List.of(), PlacementTrace.OFF.records());
+    }
+
+    private static PlacementTrace.Record placed(String task, String start, String end, int remaining) {
+        return new PlacementTrace.Record(PlacementTrace.Kind.PLACED, PlacementTrace.Reason.NONE, task,
+                DAY, LocalTime.parse(start), LocalTime.parse(end), remaining, 0);
+    }
+
+    private static PlacementTrace.Record skipped(String task, String start, String end, PlacementTrace.Reason reason) {
+        return new PlacementTrace.Record(PlacementTrace.Kind.SKIPPED, reason, task,
+                DAY, LocalTime.parse(start), LocalTime.parse(end), 0, 0);
+    }
+
+    private static Task task(String name) {
+        return new Task(name, null, 3, 60, 3, Set.of());
+    }
+}
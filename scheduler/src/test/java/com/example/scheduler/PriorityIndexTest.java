@@ -0,0 +1,159 @@
+package com.example.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the priority index keeps the same order a full sort would, across writes and date changes.
+ */
+class PriorityIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 2);
+
+    @Test
+    void matchesAFullSortAfterWrites() throws Exception {
+        Random random = new Random(3);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(randomTask(random, i));
+        }
+
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<List<Task>> source = () -> {
+            loads.incrementAndGet();
+            return List.copyOf(tasks);
+        };
+
+        PriorityIndex index = new PriorityIndex();
+        long version = 0;
+        assertEquals(sorted(tasks, TODAY), index.top(Integer.MAX_VALUE, TODAY, version, source));
+
+        // edit, complete and delete some tasks; each write moves the task version, as it does once committed
+        for (int i = 0; i < 50; i++) {
+            Task task = tasks.get(random.nextInt(tasks.size()));
+            version++;
+            switch (i % 3) {
+                case 0 -> task.setImportance(1 + random.nextInt(5));
+                case 1 -> task.setDone(true);
+                default -> {
+                    tasks.remove(task);
+                    index.remove(List.of(task.getId()), version);
+                    continue;
+                }
+            }
+            index.put(task, version);
+        }
+        tasks.removeIf(Task::isDone);
+
+        assertEquals(sorted(tasks, TODAY), index.top(Integer.MAX_VALUE, TODAY, version, source));
+        assertEquals(sorted(tasks, TODAY).subList(0, 10), index.top(10, TODAY, version, source));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void reranksOnceWhenTheDateChanges() throws Exception {
+        Task dueInAWeek = withId(new Task("report", TODAY.plusDays(7).atTime(9, 0), 3, 60, 3, Set.of()));
+        Task undated = withId(new Task("reading", null, 3, 90, 3, Set.of()));
+        AtomicInteger loads = new AtomicInteger();
+
+        PriorityIndex index = new PriorityIndex();
+        List<Task> tasks = List.of(dueInAWeek, undated);
+        assertEquals(List.of(undated, dueInAWeek), index.top(2, TODAY, 0, () -> {
+            loads.incrementAndGet();
+            return tasks;
+        }));
+
+        // six days later the deadline is close and the report moves to the top without a reload
+        LocalDate later = TODAY.plusDays(6);
+        assertEquals(List.of(dueInAWeek, undated), index.top(2, later, 0, () -> {
+            loads.incrementAndGet();
+            return tasks;
+        }));
+        assertEquals(sorted(tasks, later), index.top(2, later, 0, List::of));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void tasksWithoutADurationDoNotUseUpTheSlots() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(withId(new Task("reminder " + i, TODAY.atTime(9, i), 5, 0, 5, Set.of())));
+        }
+        Task report = withId(new Task("report", TODAY.atTime(17, 0), 3, 45, 3, Set.of()));
+        Task reading = withId(new Task("reading", null, 1, 30, 1, Set.of()));
+        Task later = withId(new Task("later", null, 1, 15, 1, Set.of()));
+        tasks.addAll(List.of(report, reading, later));
+
+        // four slots: the report needs three and reading the fourth, so nothing below reading can be placed
+        List<Task> filling = new PriorityIndex().filling(4, Granularity.of(15), TODAY, 0, () -> tasks);
+
+        assertEquals(sorted(tasks, TODAY).subList(0, 12), filling);
+        assertEquals(List.of(report, reading), filling.subList(10, 12));
+    }
+
+    @Test
+    void breaksTiesTheWayTheTaskOrderDoes() throws Exception {
+        // same priority and due date, so only the id tells them apart
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tasks.add(withId(new Task("twin " + i, TODAY.atTime(17, 0), 3, 60, 3, Set.of())));
+        }
+
+        PriorityIndex index = new PriorityIndex();
+        assertEquals(sorted(tasks, TODAY), index.top(Integer.MAX_VALUE, TODAY, 0, () -> tasks));
+    }
+
+    @Test
+    void reloadsOnceAWriteItWasNotToldAboutMovesTheVersion() throws Exception {
+        Task report = withId(new Task("report", TODAY.plusDays(7).atTime(9, 0), 3, 60, 3, Set.of()));
+        Task urgent = withId(new Task("urgent", TODAY.atTime(12, 0), 5, 30, 2, Set.of()));
+        Task reading = withId(new Task("reading", null, 1, 30, 1, Set.of()));
+        List<Task> stored = new ArrayList<>(List.of(report));
+
+        PriorityIndex index = new PriorityIndex();
+        assertEquals(List.of(report), index.top(5, TODAY, 1, () -> List.copyOf(stored)));
+
+        // saved straight through the repository, so only the version tells
+        stored.add(urgent);
+        assertEquals(List.of(report), index.top(5, TODAY, 1, () -> List.copyOf(stored)));
+        assertEquals(List.of(urgent, report), index.top(5, TODAY, 2, () -> List.copyOf(stored)));
+
+        // two writes commit before the index hears of the first, and only that one is reported:
+        // the other may have bypassed it, so the next read loads again
+        stored.add(reading);
+        index.put(urgent, 4);
+        assertEquals(List.of(urgent, report, reading), index.top(5, TODAY, 4, () -> List.copyOf(stored)));
+    }
+
+    private static List<Task> sorted(List<Task> tasks, LocalDate today) {
+        List<Task> sorted = new ArrayList<>(tasks);
+        sorted.sort(TaskManager.priorityOrder(today));
+        return sorted;
+    }
+
+    private static Task randomTask(Random random, int i) throws Exception {
+        LocalDateTime due = TODAY.atStartOfDay().plusHours(random.nextInt(500)).plusSeconds(i);
+        return withId(new Task("task " + i, due, 1 + random.nextInt(5), 15 * random.nextInt(12),
+                1 + random.nextInt(5), Set.of()));
+    }
+
+    // ids are normally assigned by the database
+    private static Task withId(Task task) throws Exception {
+        Field id = Task.class.getDeclaredField("id");
+        id.setAccessible(true);
+        id.set(task, UUID.randomUUID());
+        return task;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the batch scorer against per-task scoring and with weights of its own.
+ */
+class PriorityScorerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 2);
+
+    @Test
+    void batchScoresMatchComputePriorityExactly() {
+        List<Task> tasks = randomTasks(10_000, new Random(11));
+
+        double[] scores = PriorityScorer.score(TaskColumns.of(tasks, TODAY), PriorityWeights.DEFAULT);
+
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).computePriority(TODAY), scores[i], 0.0);
+        }
+    }
+
+    @Test
+    void customWeightsChangeTheRanking() {
+        Task urgent = new Task("urgent", TODAY.atTime(17, 0), 1, 30, 1, Set.of());
+        Task important = new Task("important", null, 5, 30, 1, Set.of());
+        TaskColumns columns = TaskColumns.of(List.of(urgent, important), TODAY);
+
+        double[] byDefault = PriorityScorer.score(columns, PriorityWeights.DEFAULT);
+        double[] deadlineDriven = PriorityScorer.score(columns, new PriorityWeights(1, 40, 0, 0));
+
+        assertTrue(byDefault[1] > byDefault[0]);
+        assertTrue(deadlineDriven[0] > deadlineDriven[1]);
+    }
+
+    private static List<Task> randomTasks(int count, Random random) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime due = random.nextInt(5) == 0 ? null : TODAY.atStartOfDay().plusHours(random.nextInt(2_000) - 200);
+            tasks.add(new Task("task " + i, due, 1 + random.nextInt(5), 5 * random.nextInt(100),
+                    1 + random.nextInt(5), Set.of()));
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static com.example.scheduler.ScheduleFixtures.count;
+import static com.example.scheduler.ScheduleFixtures.days;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the productivity placer's matching and which tasks it places when time is short.
+ * Runs without Spring or the database; its speed is measured by the JMH suite.
+ */
+class ProductivityPlacerTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 5);
+    // a one-hour meeting at noon every day
+    private static final int[] NOON_MEETING = {12 * 60, 13 * 60};
+
+    @Test
+    void complexTasksGetTheMostProductiveSlots() {
+        Granularity granularity = Granularity.of(15);
+        // morning is the user's best time, afternoon the worst
+        Productivity productivity = new Productivity(1.8, 0.6, 1.0, 1.0);
+
+        List<Task> tasks = List.of(
+                task("easy", 1, 60),
+                task("hard", 5, 60)
+        );
+        OpenSlots slots = OpenSlots.of(START, days(1, 9, 17, NOON_MEETING, granularity), granularity);
+        int[] taskAt = ProductivityPlacer.place(slots, tasks, productivity, granularity);
+
+        for (int pos = 0; pos < slots.size(); pos++) {
+            if (taskAt[pos] == 1) {
+                assertTrue(slots.minuteOf(pos) < 12 * 60, "hard task should be in the morning");
+            }
+        }
+        assertEquals(4, count(taskAt, 0));
+        assertEquals(4, count(taskAt, 1));
+    }
+
+    @Test
+    void shortOfTimeTheTopPriorityTaskIsStillPlaced() {
+        Granularity granularity = Granularity.of(15);
+        Productivity productivity = new Productivity(1.8, 0.6, 1.0, 1.0);
+        OpenSlots slots = OpenSlots.of(START, days(1, 9, 17, NOON_MEETING, granularity), granularity);
+
+        // ranked first but simple, then a complex task that alone would fill the whole day, then one more
+        List<Task> tasks = List.of(
+                task("urgent", 1, 60),
+                task("big", 5, slots.size() * 15),
+                task("left out", 5, 60)
+        );
+        int[] taskAt = ProductivityPlacer.place(slots, tasks, productivity, granularity);
+
+        assertEquals(4, count(taskAt, 0));
+        assertEquals(slots.size() - 4, count(taskAt, 1));
+        assertEquals(0, count(taskAt, 2));
+        for (int pos = 0; pos < slots.size(); pos++) {
+            if (taskAt[pos] == 0) {
+                assertTrue(slots.minuteOf(pos) >= 12 * 60, "the complex task keeps the morning");
+            }
+        }
+    }
+
+    private static Task task(String name, int complexity, int minutes) {
+        return new Task(name, LocalDateTime.of(START.plusDays(7), LocalTime.NOON), 3, minutes, complexity, Set.of());
+    }
+}
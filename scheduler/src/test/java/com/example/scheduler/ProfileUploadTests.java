@@ -0,0 +1,68 @@
+package com.example.scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Uploads a calendar larger than the servlet container's default multipart limit through the
+ * running application, so the limits configured for large imports are checked end to end.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:upload;DB_CLOSE_DELAY=-1")
+class ProfileUploadTests {
+
+    private static final String BOUNDARY = "scheduler-upload-boundary";
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Test
+    void importsACalendarAboveOneMegabyte() throws Exception {
+        byte[] calendar = calendar(20_000);
+        assertTrue(calendar.length > 2 * 1024 * 1024);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/profile/import"))
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(multipart("big.ics", calendar)))
+                .build();
+        HttpResponse<Void> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding());
+
+        assertEquals(302, response.statusCode());
+        String location = response.headers().firstValue("Location").orElse("");
+        assertTrue(location.contains("success=imported&events=20000"), location);
+    }
+
+    private static byte[] calendar(int events) {
+        StringBuilder ics = new StringBuilder("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n");
+        for (int i = 0; i < events; i++) {
+            int day = 1 + i % 28;
+            ics.append("BEGIN:VEVENT\r\nUID:upload-").append(i).append("@example.com\r\n")
+                    .append("DTSTART:202602").append(day < 10 ? "0" : "").append(day).append("T090000\r\n")
+                    .append("DURATION:PT30M\r\n")
+                    .append("SUMMARY:Imported event number ").append(i).append("\r\n")
+                    .append("END:VEVENT\r\n");
+        }
+        return ics.append("END:VCALENDAR\r\n").toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] multipart(String filename, byte[] content) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: text/calendar\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        body.writeBytes(content);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return body.toByteArray();
+    }
+}
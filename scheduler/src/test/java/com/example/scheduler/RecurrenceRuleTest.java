@@ -0,0 +1,141 @@
+package com.example.scheduler;
+
+import com.example.scheduler.database.RecurringEventRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks RRULE expansion within a window, the limits of a series, and caching per (series, window)
+ * and per calendar version.
+ */
+class RecurrenceRuleTest {
+
+    private static final LocalTime NINE = LocalTime.of(9, 0);
+
+    @Test
+    void expandsWeeklyByDayOnlyWithinTheWindow() {
+        // Monday 2026-01-05, every other week on Monday and Wednesday
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE", null);
+
+        List<LocalDate> dates = rule.dates(LocalDate.of(2026, 1, 5), NINE,
+                LocalDate.of(2030, 3, 1), LocalDate.of(2030, 3, 31), date -> false);
+
+        // the week of 2030-03-04 is 217 weeks from the start, so it is skipped and the next one is not
+        assertEquals(List.of(LocalDate.of(2030, 3, 11), LocalDate.of(2030, 3, 13),
+                LocalDate.of(2030, 3, 25), LocalDate.of(2030, 3, 27)), dates);
+    }
+
+    @Test
+    void countsOccurrencesBeforeTheWindowAndBeforeExceptions() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;COUNT=5", null);
+        LocalDate start = LocalDate.of(2026, 1, 1);
+
+        // the 2nd is taken out but still counts, so the series ends on the 5th
+        List<LocalDate> dates = rule.dates(start, NINE, LocalDate.of(2026, 1, 2), LocalDate.of(2026, 2, 1),
+                Set.of(LocalDate.of(2026, 1, 2))::contains);
+
+        assertEquals(List.of(LocalDate.of(2026, 1, 3), LocalDate.of(2026, 1, 4), LocalDate.of(2026, 1, 5)), dates);
+    }
+
+    @Test
+    void monthlyRulesSkipDaysAMonthDoesNotHave() {
+        LocalDate start = LocalDate.of(2026, 1, 31);
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate to = LocalDate.of(2026, 5, 1);
+
+        assertEquals(List.of(LocalDate.of(2026, 1, 31), LocalDate.of(2026, 3, 31)),
+                RecurrenceRule.parse("FREQ=MONTHLY", null).dates(start, NINE, from, to, date -> false));
+
+        // last Friday and last day of each month
+        assertEquals(List.of(LocalDate.of(2026, 2, 27), LocalDate.of(2026, 3, 27), LocalDate.of(2026, 4, 24)),
+                RecurrenceRule.parse("FREQ=MONTHLY;BYDAY=-1FR", null).dates(start, NINE, from, to, date -> false));
+        assertEquals(List.of(LocalDate.of(2026, 1, 31), LocalDate.of(2026, 2, 28), LocalDate.of(2026, 3, 31),
+                        LocalDate.of(2026, 4, 30)),
+                RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=-1", null).dates(start, NINE, from, to, date -> false));
+    }
+
+    @Test
+    void stopsAtUntilAndRejectsWhatItCannotExpand() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;UNTIL=20260103T090000Z",
+                LocalDateTime.of(2026, 1, 3, 9, 0));
+
+        assertEquals(List.of(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 2), LocalDate.of(2026, 1, 3)),
+                rule.dates(LocalDate.of(2026, 1, 1), NINE, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 2, 1),
+                        date -> false));
+
+        assertNull(RecurrenceRule.parse("FREQ=HOURLY", null));
+        assertNull(RecurrenceRule.parse("FREQ=MONTHLY;BYDAY=MO;BYSETPOS=1", null));
+        assertNull(RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=2MO", null));
+        assertNull(RecurrenceRule.parse("FREQ=YEARLY;BYDAY=MO", null));
+    }
+
+    @Test
+    void cachesExpansionsPerSeriesAndWindow() {
+        RecurringEvent standup = new RecurringEvent("standup", "Standup", LocalDate.of(2026, 1, 5),
+                NINE, LocalTime.of(9, 15), "FREQ=WEEKLY;BYDAY=MO,TU,WE,TH,FR", null);
+        RecurrenceExpander expander = new RecurrenceExpander(16);
+        Recurrence recurrence = Recurrence.of(standup);
+
+        List<CalendarEvent> week = expander.expand(recurrence, LocalDate.of(2026, 2, 2), 7);
+        assertEquals(5, week.size());
+        assertEquals(LocalTime.of(9, 15), week.get(0).getEndTime());
+
+        // the same series read again is equal, so it hits; another window misses
+        assertSame(week, expander.expand(Recurrence.of(standup), LocalDate.of(2026, 2, 2), 7));
+        expander.expand(recurrence, LocalDate.of(2026, 2, 9), 7);
+        assertEquals(1, expander.getHits());
+        assertEquals(2, expander.getMisses());
+
+        // an edited series is a different key
+        standup.addExceptionDate(LocalDate.of(2026, 2, 3));
+        assertEquals(4, expander.expand(Recurrence.of(standup), LocalDate.of(2026, 2, 2), 7).size());
+    }
+
+    @Test
+    void readsTheSeriesAgainOnlyAfterAnImport() throws Exception {
+        RecurringEvent standup = new RecurringEvent("standup", "Standup", LocalDate.of(2026, 1, 5),
+                NINE, LocalTime.of(9, 15), "FREQ=WEEKLY;BYDAY=MO,TU,WE,TH,FR", null);
+        AtomicInteger reads = new AtomicInteger();
+        RecurringEventRepository repository = (RecurringEventRepository) Proxy.newProxyInstance(
+                RecurringEventRepository.class.getClassLoader(), new Class<?>[] {RecurringEventRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("findAll")) throw new UnsupportedOperationException(method.getName());
+                    reads.incrementAndGet();
+                    return List.of(standup);
+                });
+        DataVersion dataVersion = new DataVersion();
+        RecurrenceExpander expander = new RecurrenceExpander(16);
+        set(expander, "recurringEventRepository", repository);
+        set(expander, "dataVersion", dataVersion);
+
+        assertEquals(5, expander.occurrences(LocalDate.of(2026, 2, 2), 7).size());
+
+        // task writes and profile saves change nothing the series depend on
+        dataVersion.bumpTasksAfterCommit();
+        dataVersion.bump();
+        expander.occurrences(LocalDate.of(2026, 2, 2), 7);
+        assertEquals(1, reads.get());
+
+        dataVersion.bumpCalendar();
+        expander.occurrences(LocalDate.of(2026, 2, 2), 7);
+        assertEquals(2, reads.get());
+    }
+
+    private static void set(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.scheduler;
+
+/**
+ * Days and placement counts shared by the placement tests.
+ */
+final class ScheduleFixtures {
+
+    private ScheduleFixtures() {}
+
+    /**
+     * Identical working days with no busy time.
+     */
+    static RunLengthDay[] days(int count, int fromHour, int toHour, Granularity granularity) {
+        return days(count, fromHour, toHour, new int[0], granularity);
+    }
+
+    /**
+     * Identical working days, each busy during the given [start, end) minute spans.
+     */
+    static RunLengthDay[] days(int count, int fromHour, int toHour, int[] busy, Granularity granularity) {
+        RunLengthDay[] days = new RunLengthDay[count];
+        for (int d = 0; d < count; d++) {
+            days[d] = RunLengthDay.build(fromHour * 60, toHour * 60, busy, granularity);
+        }
+        return days;
+    }
+
+    /**
+     * Slots of a placement given to the task; -1 counts the slots left empty.
+     */
+    static int count(int[] taskAt, int task) {
+        int n = 0;
+        for (int t : taskAt) {
+            if (t == task) n++;
+        }
+        return n;
+    }
+}
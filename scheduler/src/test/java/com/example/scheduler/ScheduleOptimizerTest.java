@@ -0,0 +1,84 @@
+package com.example.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+
+import static com.example.scheduler.ScheduleFixtures.count;
+import static com.example.scheduler.ScheduleFixtures.days;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that local search only ever improves the greedy placement and keeps every task's slots.
+ */
+class ScheduleOptimizerTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 5);
+    private static final Granularity GRANULARITY = Granularity.of(15);
+    private static final int[] LUNCH = {13 * 60, 14 * 60};
+    // far beyond what the search needs here, so a loaded machine still finds the improvement
+    private static final long GENEROUS_BUDGET = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void movesTaskBeforeTheDeadlineGreedyMisses() {
+        Task big = new Task("big", null, 5, 240, 3, Set.of());
+        Task due = new Task("due", START.atTime(11, 0), 1, 60, 1, Set.of());
+        List<Task> tasks = List.of(big, due);
+
+        OpenSlots slots = OpenSlots.of(START, days(1, 9, 17, LUNCH, GRANULARITY), GRANULARITY);
+        int[] greedy = slots.fill(tasks, tasks, GRANULARITY);
+        ScheduleOptimizer optimizer = new ScheduleOptimizer(slots, tasks, new Productivity());
+        int[] improved = optimizer.improve(greedy, GENEROUS_BUDGET);
+
+        assertTrue(optimizer.cost(improved) < optimizer.cost(greedy));
+        for (int pos = 0; pos < slots.size(); pos++) {
+            if (improved[pos] == 1) {
+                assertTrue(slots.minuteOf(pos) + 15 <= 11 * 60, "due task should finish by 11:00");
+            }
+        }
+    }
+
+    @Test
+    void neverWorseThanGreedyAndKeepsEverySlot() {
+        Random random = new Random(7);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            LocalDateTime dueDate = random.nextBoolean()
+                    ? START.plusDays(random.nextInt(7)).atTime(LocalTime.of(9 + random.nextInt(8), 0))
+                    : null;
+            tasks.add(new Task("task " + i, dueDate, 1 + random.nextInt(5),
+                    15 * (1 + random.nextInt(12)), 1 + random.nextInt(5), Set.of()));
+        }
+
+        OpenSlots slots = OpenSlots.of(START, days(7, 9, 17, LUNCH, GRANULARITY), GRANULARITY);
+        int[] greedy = slots.fill(tasks, tasks, GRANULARITY);
+        ScheduleOptimizer optimizer = new ScheduleOptimizer(slots, tasks, new Productivity(1.5, 0.8, 1.0, 1.0));
+        int[] improved = optimizer.improve(greedy, TimeUnit.MILLISECONDS.toNanos(20));
+
+        assertTrue(optimizer.cost(improved) <= optimizer.cost(greedy));
+        for (int t = -1; t < tasks.size(); t++) {
+            assertEquals(count(greedy, t), count(improved, t));
+        }
+    }
+
+    @Test
+    void noBudgetReturnsTheGreedyPlacement() {
+        List<Task> tasks = List.of(
+                new Task("a", null, 5, 120, 3, Set.of()),
+                new Task("b", START.atTime(10, 0), 1, 60, 1, Set.of()));
+
+        OpenSlots slots = OpenSlots.of(START, days(1, 9, 17, LUNCH, GRANULARITY), GRANULARITY);
+        int[] greedy = slots.fill(tasks, tasks, GRANULARITY);
+
+        assertArrayEquals(greedy, new ScheduleOptimizer(slots, tasks, new Productivity()).improve(greedy, 0));
+    }
+}